@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+# Runs a distributed open-model load test on one machine: the system under test, a coordinator
+# and N load-generator workers each get their own JVM (and optionally their own CPUs), so the
+# generator no longer competes with the system under test for cores and carrier threads.
+#
+#   scripts/distributed-load-test.sh [query parameters for /api/load-test/distributed]
+#   WORKERS=4 SUT_CPUS=0-3 WORKER_CPUS=4-7 scripts/distributed-load-test.sh "targetRps=2000&durationSec=60"
+#
+# Set TARGET_URL to drive a system under test that is already running elsewhere; the script then
+# starts only the coordinator and workers. The merged report is written to build/distributed/report.json.
+set -euo pipefail
+
+WORKERS=${WORKERS:-3}
+SUT_PORT=${SUT_PORT:-8080}
+COORDINATOR_PORT=${COORDINATOR_PORT:-8090}
+WORKER_BASE_PORT=${WORKER_BASE_PORT:-8091}
+TARGET_URL=${TARGET_URL:-}
+SUT_CPUS=${SUT_CPUS:-}
+WORKER_CPUS=${WORKER_CPUS:-}
+JAVA_OPTS=${JAVA_OPTS:-}
+QUERY=${1:-threadType=virtual&targetRps=300&rampUpSec=5&durationSec=30&coolDownSec=5}
+
+cd "$(dirname "$0")/.."
+OUT=build/distributed
+mkdir -p "$OUT"
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+# start <name> <port> <cpus> [extra args...]
+start() {
+    local name=$1 port=$2 cpus=$3
+    shift 3
+    local cmd=(java --enable-preview $JAVA_OPTS -jar "$JAR" --server.port="$port" "$@")
+    if [[ -n "$cpus" ]] && command -v taskset >/dev/null; then
+        cmd=(taskset -c "$cpus" "${cmd[@]}")
+    fi
+    "${cmd[@]}" >"$OUT/$name.log" 2>&1 &
+    PIDS+=($!)
+    echo "Started $name on port $port (pid $!, log $OUT/$name.log)"
+}
+
+await_up() {
+    local port=$1
+    for _ in $(seq 1 120); do
+        if curl -fs "http://localhost:$port/actuator/health" >/dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Instance on port $port did not come up" >&2
+    exit 1
+}
+
+START_SUT=false
+if [[ -z "$TARGET_URL" ]]; then
+    START_SUT=true
+    TARGET_URL="http://localhost:$SUT_PORT"
+    start sut "$SUT_PORT" "$SUT_CPUS"
+fi
+
+# Workers only generate load, so they do not need the pinning monitor. They only send load to
+# their own target-url, so it has to match the coordinator's
+WORKER_URLS=()
+for i in $(seq 0 $((WORKERS - 1))); do
+    port=$((WORKER_BASE_PORT + i))
+    start "worker-$i" "$port" "$WORKER_CPUS" --app.pinning-monitor.enabled=false \
+        --app.load-test.target-url="$TARGET_URL"
+    WORKER_URLS+=("http://localhost:$port")
+done
+WORKER_LIST=$(IFS=,; echo "${WORKER_URLS[*]}")
+
+start coordinator "$COORDINATOR_PORT" "$WORKER_CPUS" --app.pinning-monitor.enabled=false \
+    --app.load-test.target-url="$TARGET_URL" --app.load-test.workers="$WORKER_LIST"
+
+if [[ "$START_SUT" == true ]]; then
+    await_up "$SUT_PORT"
+fi
+for i in $(seq 0 $((WORKERS - 1))); do
+    await_up $((WORKER_BASE_PORT + i))
+done
+await_up "$COORDINATOR_PORT"
+
+echo "Running distributed load test against $TARGET_URL with $WORKERS workers: $QUERY"
+curl -fsS "http://localhost:$COORDINATOR_PORT/api/load-test/distributed?$QUERY" | tee "$OUT/report.json"
+echo
+echo "Report written to $OUT/report.json"
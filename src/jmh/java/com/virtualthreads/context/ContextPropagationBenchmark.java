@@ -0,0 +1,173 @@
+package com.virtualthreads.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting request context into every task of a virtual-thread fan-out. Each task reads
+ * the correlation id, as an outbound call does when writing its headers. The variants:
+ * <ul>
+ *   <li>scopedValue: RequestContext captured on submit and rebound in the task, as
+ *       InstrumentedExecutor does;</li>
+ *   <li>scopedValueStructured: StructuredTaskScope forks, which see the binding with no capture;</li>
+ *   <li>inheritableThreadLocal: each new virtual thread copies the submitter's inheritable map;</li>
+ *   <li>threadLocalDecorator: a plain ThreadLocal captured on submit, set and removed in the task;</li>
+ *   <li>mdc: the MDC map copied on submit and installed in the task, as an MDC TaskDecorator does.</li>
+ * </ul>
+ * Compare allocation per operation (the gc profiler) as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextPropagationBenchmark {
+
+    private static final ThreadLocal<RequestContext> THREAD_LOCAL = new ThreadLocal<>();
+    private static final InheritableThreadLocal<RequestContext> INHERITABLE = new InheritableThreadLocal<>();
+
+    @Param({"10", "100", "1000"})
+    int fanOut;
+
+    private ExecutorService executor;
+    private RequestContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+        context = RequestContext.fromHeaders(Map.of(
+                RequestContext.CORRELATION_ID_HEADER, "3f2b8c1e-5d4a-4e6f-9a7b-1c2d3e4f5a6b",
+                RequestContext.TENANT_HEADER, "tenant-42",
+                RequestContext.TIMEOUT_HEADER, "60000")::get);
+        // Set on the benchmark thread for the variants that copy from the submitting thread. The
+        // inheritable one is set only around its own benchmark, or every variant would pay for it
+        THREAD_LOCAL.set(context);
+        MDC.put("correlationId", context.correlationId());
+        MDC.put("tenant", context.tenant());
+        MDC.put("deadlineNanos", Long.toString(context.deadlineNanos()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        THREAD_LOCAL.remove();
+        MDC.clear();
+        executor.close();
+    }
+
+    // No context at all: the cost of the fan-out itself
+    @Benchmark
+    public int baseline() throws Exception {
+        return fanOut(() -> 36);
+    }
+
+    @Benchmark
+    public int scopedValue() throws Exception {
+        return context.call(() -> {
+            List<Future<Integer>> futures = new ArrayList<>(fanOut);
+            for (int i = 0; i < fanOut; i++) {
+                FutureTask<Integer> task = new FutureTask<>(
+                        () -> RequestContext.current().orElseThrow().correlationId().length());
+                executor.execute(RequestContext.wrap(task));
+                futures.add(task);
+            }
+            return sum(futures);
+        });
+    }
+
+    @Benchmark
+    public int scopedValueStructured() throws Exception {
+        return context.call(() -> {
+            try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+                List<StructuredTaskScope.Subtask<Integer>> subtasks = new ArrayList<>(fanOut);
+                for (int i = 0; i < fanOut; i++) {
+                    subtasks.add(scope.fork(() -> RequestContext.current().orElseThrow().correlationId().length()));
+                }
+                scope.join().throwIfFailed();
+                int total = 0;
+                for (StructuredTaskScope.Subtask<Integer> subtask : subtasks) {
+                    total += subtask.get();
+                }
+                return total;
+            }
+        });
+    }
+
+    @Benchmark
+    public int inheritableThreadLocal() throws Exception {
+        INHERITABLE.set(context);
+        try {
+            return fanOut(() -> INHERITABLE.get().correlationId().length());
+        } finally {
+            INHERITABLE.remove();
+        }
+    }
+
+    @Benchmark
+    public int threadLocalDecorator() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            RequestContext captured = THREAD_LOCAL.get();
+            futures.add(executor.submit(() -> {
+                THREAD_LOCAL.set(captured);
+                try {
+                    return THREAD_LOCAL.get().correlationId().length();
+                } finally {
+                    THREAD_LOCAL.remove();
+                }
+            }));
+        }
+        return sum(futures);
+    }
+
+    @Benchmark
+    public int mdc() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            Map<String, String> captured = MDC.getCopyOfContextMap();
+            futures.add(executor.submit(() -> {
+                MDC.setContextMap(captured);
+                try {
+                    return MDC.get("correlationId").length();
+                } finally {
+                    MDC.clear();
+                }
+            }));
+        }
+        return sum(futures);
+    }
+
+    private int fanOut(Callable<Integer> task) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            futures.add(executor.submit(task));
+        }
+        return sum(futures);
+    }
+
+    private static int sum(List<Future<Integer>> futures) throws InterruptedException, ExecutionException {
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.cache.SingleFlightCache;
+import com.virtualthreads.client.MockApiClients;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.config.BatchingProperties;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.resilience.ResilientCaller;
+import com.virtualthreads.resilience.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// Wires the real services around StubMockApiClient without starting Spring
+class BenchmarkFixture implements AutoCloseable {
+
+    final LoopbackDelayServer server;
+    final ManagedExecutors executors;
+    final ExternalApiService externalApiService;
+    final ApiOrchestratorService orchestratorService;
+
+    BenchmarkFixture(StubMockApiClient.Workload workload) throws IOException {
+        this.server = new LoopbackDelayServer();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FanOutMetrics metrics = new FanOutMetrics(meterRegistry);
+        // Per-host limit set high so it never caps the fan-out sizes being measured
+        this.executors = new ManagedExecutors(meterRegistry, 200, 200, 100_000, 5, 0, 100);
+        this.externalApiService = new ExternalApiService(
+                new MockApiClients(List.of(new StubMockApiClient(workload, server))),
+                executors,
+                new SingleFlightCache<String, MockApiResponse>(1, Duration.ofSeconds(1)),
+                Optional.empty(),
+                new BatchingProperties(100, Duration.ofMillis(1)),
+                new ResilientCaller(executors.callAttemptExecutor(), new RetryBudget(0.1, 10), 95,
+                        Duration.ofMillis(5), Duration.ofSeconds(5), 50, Duration.ofMillis(20), Duration.ofSeconds(1),
+                        meterRegistry),
+                metrics,
+                "http://localhost:8080",
+                0);
+        this.orchestratorService = new ApiOrchestratorService(externalApiService, Optional.empty(), metrics);
+    }
+
+    @Override
+    public void close() throws IOException {
+        executors.destroy();
+        server.close();
+    }
+}
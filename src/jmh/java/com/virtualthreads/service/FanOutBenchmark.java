@@ -0,0 +1,74 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.concurrent.FanOutPolicy;
+import com.virtualthreads.resilience.CallPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end fan-out through ApiOrchestratorService and ExternalApiService, with the HTTP
+ * client replaced by a stub that either sleeps or does a blocking loopback socket read.
+ * The platform pool has 200 threads, so fan-outs above that show queueing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FanOutBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int fanOut;
+
+    @Param({"SLEEP", "IO"})
+    StubMockApiClient.Workload workload;
+
+    @Param({"10"})
+    int delayMs;
+
+    private BenchmarkFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixture = new BenchmarkFixture(workload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> platformThreads() {
+        return fixture.orchestratorService.aggregateWithPlatformThreads(fanOut, delayMs);
+    }
+
+    @Benchmark
+    public Map<String, Object> virtualThreads() {
+        return fixture.orchestratorService.aggregateWithVirtualThreads(fanOut, delayMs);
+    }
+
+    // Same fan-out, but concurrent calls are coalesced into /mock-api/batch calls of up to 100 ids
+    @Benchmark
+    public Map<String, Object> virtualThreadsBatched() {
+        return fixture.orchestratorService.aggregateWithVirtualThreads(fanOut, delayMs,
+                new FetchOptions(HttpClientType.WEBCLIENT_BLOCKING, false, true, true, null, CallPolicy.NONE));
+    }
+
+    @Benchmark
+    public Map<String, Object> structuredScope() {
+        return fixture.orchestratorService.aggregateWithStructuredConcurrency(
+                fanOut, delayMs, 60_000, FanOutPolicy.FAIL_FAST, 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.virtualthreads.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+// Minimal TCP server: reads a delay in ms, sleeps on a virtual thread, then answers with one int
+class LoopbackDelayServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+
+    LoopbackDelayServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 4096, InetAddress.getLoopbackAddress());
+        this.acceptor = Thread.ofVirtual().name("loopback-acceptor").start(this::acceptLoop);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().start(() -> handle(socket));
+            } catch (IOException e) {
+                // Closed while accepting
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(socket.getInputStream());
+             DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+            int delayMs = in.readInt();
+            Thread.sleep(delayMs);
+            out.writeInt(delayMs);
+            out.flush();
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        acceptor.interrupt();
+    }
+}
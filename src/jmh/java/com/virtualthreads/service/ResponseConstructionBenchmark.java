@@ -0,0 +1,102 @@
+package com.virtualthreads.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.client.MockApiClient;
+import com.virtualthreads.model.AggregatedResult;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.resilience.CallPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Per-call CPU and allocation cost of the bookkeeping around each outbound request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseConstructionBenchmark {
+
+    @Param({"true", "false"})
+    boolean includeThreadInfo;
+
+    private BenchmarkFixture fixture;
+    private MockApiClient client;
+    private FetchOptions options;
+    private ObjectReader responseReader;
+    private ObjectWriter resultWriter;
+    private byte[] bodyBytes;
+    private AggregatedResult result;
+    private final String apiUrl = "/mock-api/417";
+    private final MockApiResponse body = new MockApiResponse(
+            "417",
+            "2024-01-01T00:00:00",
+            42,
+            "VirtualThread[#42]/runnable@ForkJoinPool-1-worker-1",
+            true);
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = new BenchmarkFixture(StubMockApiClient.Workload.SLEEP);
+        client = new MockApiClient() {
+            @Override
+            public HttpClientType type() {
+                return HttpClientType.WEBCLIENT_BLOCKING;
+            }
+
+            @Override
+            public MockApiResponse get(String url) {
+                return body;
+            }
+        };
+        options = new FetchOptions(HttpClientType.WEBCLIENT_BLOCKING, false, includeThreadInfo, false, null,
+                CallPolicy.NONE);
+        ObjectMapper objectMapper = new ObjectMapper();
+        responseReader = objectMapper.readerFor(MockApiResponse.class);
+        resultWriter = objectMapper.writerFor(AggregatedResult.class);
+        bodyBytes = objectMapper.writeValueAsBytes(body);
+        result = enhanceResponse();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String extractApiId() {
+        return ExternalApiService.extractApiId(apiUrl);
+    }
+
+    @Benchmark
+    public String buildUrl() {
+        return fixture.externalApiService.buildUrl(apiUrl, 200, options);
+    }
+
+    @Benchmark
+    public AggregatedResult enhanceResponse() {
+        return fixture.externalApiService.enhance("http://localhost:8080/mock-api/417?delayMs=200", body, 200,
+                options, client);
+    }
+
+    // Same path JdkMockApiClient takes: bind the record straight from the body bytes
+    @Benchmark
+    public MockApiResponse parseResponse() throws IOException {
+        return responseReader.readValue(bodyBytes);
+    }
+
+    @Benchmark
+    public byte[] writeResult() throws IOException {
+        return resultWriter.writeValueAsBytes(result);
+    }
+}
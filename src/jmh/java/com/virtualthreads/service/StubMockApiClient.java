@@ -0,0 +1,87 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.client.MockApiClient;
+import com.virtualthreads.model.MockApiResponse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stands in for the HTTP clients so benchmarks measure the orchestration, not Tomcat or the network
+class StubMockApiClient implements MockApiClient {
+
+    enum Workload {
+        // Thread.sleep for the requested delay
+        SLEEP,
+        // Blocking socket read against LoopbackDelayServer, which answers after the requested delay
+        IO
+    }
+
+    private final Workload workload;
+    private final LoopbackDelayServer server;
+
+    StubMockApiClient(Workload workload, LoopbackDelayServer server) {
+        this.workload = workload;
+        this.server = server;
+    }
+
+    @Override
+    public HttpClientType type() {
+        return HttpClientType.WEBCLIENT_BLOCKING;
+    }
+
+    @Override
+    public MockApiResponse get(String url) {
+        await(queryParam(url, "delayMs"));
+        return response(ExternalApiService.extractApiId(url.substring(0, url.indexOf('?'))));
+    }
+
+    // One wait for the whole batch, like the real /mock-api/batch
+    @Override
+    public List<MockApiResponse> getBatch(String url) {
+        await(queryParam(url, "delayMs"));
+        List<MockApiResponse> responses = new ArrayList<>();
+        for (String id : queryParam(url, "ids").split(",")) {
+            responses.add(response(id));
+        }
+        return responses;
+    }
+
+    private void await(String delay) {
+        int delayMs = Integer.parseInt(delay);
+        if (workload == Workload.SLEEP) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        } else {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+                 DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                 DataInputStream in = new DataInputStream(socket.getInputStream())) {
+                out.writeInt(delayMs);
+                out.flush();
+                in.readInt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static MockApiResponse response(String id) {
+        return new MockApiResponse(id, null, 42, null, Thread.currentThread().isVirtual());
+    }
+
+    private static String queryParam(String url, String name) {
+        int start = url.indexOf(name + "=") + name.length() + 1;
+        int end = url.indexOf('&', start);
+        return end < 0 ? url.substring(start) : url.substring(start, end);
+    }
+}
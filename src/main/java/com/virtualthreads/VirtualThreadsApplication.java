@@ -2,9 +2,9 @@ package com.virtualthreads;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.concurrent.Executors;
 
@@ -15,12 +15,10 @@ public class VirtualThreadsApplication {
         SpringApplication.run(VirtualThreadsApplication.class, args);
     }
 
+    // One virtual thread per Tomcat request; app.server.virtual-threads=false (the tomcat-platform
+    // profile) keeps Tomcat's own pool of server.tomcat.threads.max platform threads
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
-    }
-
-    @Bean
+    @ConditionalOnProperty(name = "app.server.virtual-threads", havingValue = "true", matchIfMissing = true)
     public TomcatProtocolHandlerCustomizer<?> protocolHandlerVirtualThreadExecutorCustomizer() {
         return protocolHandler -> {
             protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
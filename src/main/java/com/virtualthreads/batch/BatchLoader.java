@@ -0,0 +1,11 @@
+package com.virtualthreads.batch;
+
+import java.util.List;
+import java.util.Map;
+
+// Fetches many keys in one downstream call; keys missing from the result fail their callers
+@FunctionalInterface
+public interface BatchLoader<K, V> {
+
+    Map<K, V> load(List<K> keys) throws Exception;
+}
@@ -0,0 +1,131 @@
+package com.virtualthreads.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects single-key requests that arrive close together and hands them to a
+ * {@link BatchLoader} as one call. A batch is dispatched when it reaches
+ * {@code maxBatchSize} distinct keys or when {@code maxWait} has passed since its
+ * first key arrived, whichever comes first. Duplicate keys within a batch share
+ * one slot and one result.
+ */
+public class MicroBatcher<K, V> {
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Executor executor;
+    private final BatchLoader<K, V> loader;
+
+    // Guarded by a ReentrantLock rather than synchronized so virtual threads never pin on it
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch<K, V> current;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+
+    public MicroBatcher(int maxBatchSize, Duration maxWait, Executor executor, BatchLoader<K, V> loader) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.executor = executor;
+        this.loader = loader;
+    }
+
+    public CompletableFuture<V> submit(K key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        Batch<K, V> batch;
+        boolean opened = false;
+        boolean full = false;
+
+        lock.lock();
+        try {
+            if (current == null) {
+                current = new Batch<>();
+                opened = true;
+            }
+            batch = current;
+            batch.waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+            if (batch.waiters.size() >= maxBatchSize) {
+                full = true;
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        requests.increment();
+
+        if (full) {
+            executor.execute(() -> dispatch(batch));
+        } else if (opened) {
+            CompletableFuture.delayedExecutor(maxWaitNanos, TimeUnit.NANOSECONDS, executor)
+                    .execute(() -> flushIfCurrent(batch));
+        }
+        return future;
+    }
+
+    // The window timer of a batch that already went out because it filled up is a no-op
+    private void flushIfCurrent(Batch<K, V> batch) {
+        lock.lock();
+        try {
+            if (current != batch) {
+                return;
+            }
+            current = null;
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        batches.increment();
+        keys.add(batch.waiters.size());
+
+        Map<K, V> results;
+        try {
+            results = loader.load(new ArrayList<>(batch.waiters.keySet()));
+        } catch (Throwable t) {
+            batch.waiters.values().forEach(list -> list.forEach(f -> f.completeExceptionally(t)));
+            return;
+        }
+
+        batch.waiters.forEach((key, list) -> {
+            V value = results != null ? results.get(key) : null;
+            for (CompletableFuture<V> f : list) {
+                if (value != null) {
+                    f.complete(value);
+                } else {
+                    f.completeExceptionally(new IllegalStateException("No result for " + key + " in batch"));
+                }
+            }
+        });
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long keys() {
+        return keys.sum();
+    }
+
+    private static final class Batch<K, V> {
+        final Map<K, List<CompletableFuture<V>>> waiters = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,31 @@
+package com.virtualthreads.cache;
+
+import com.virtualthreads.model.MockApiResponse;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// /actuator/responsecache: hit/miss/coalesced counters; DELETE clears the cache
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final SingleFlightCache<String, MockApiResponse> responseCache;
+
+    public ResponseCacheEndpoint(SingleFlightCache<String, MockApiResponse> responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return responseCache.stats();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        responseCache.clear();
+    }
+}
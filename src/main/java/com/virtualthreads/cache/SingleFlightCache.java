@@ -0,0 +1,183 @@
+package com.virtualthreads.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache with a time-to-live that also de-duplicates concurrent loads:
+ * while a value is being fetched, every other caller asking for the same key gets
+ * the same future instead of issuing its own downstream call.
+ */
+public class SingleFlightCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    // Guarded by a ReentrantLock rather than synchronized so virtual threads never pin on it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public SingleFlightCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    SingleFlightCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > SingleFlightCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // The loader is only invoked on a miss with no load already in flight, and never under a lock
+    public CompletableFuture<V> get(K key, Supplier<CompletableFuture<V>> loader) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, error) -> {
+            // Store before leaving the in-flight map so a concurrent caller always finds one of them
+            if (error == null && value != null) {
+                store(key, value);
+            }
+            inFlight.remove(key, pending);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(value);
+            }
+        });
+        return pending;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    public Map<String, Object> stats() {
+        long requests = hits() + misses() + coalesced();
+        return Map.of(
+                "size", size(),
+                "maxEntries", maxEntries,
+                "ttlMs", Duration.ofNanos(ttlNanos).toMillis(),
+                "inFlight", inFlightCount(),
+                "hits", hits(),
+                "misses", misses(),
+                "coalesced", coalesced(),
+                "evictions", evictions(),
+                "expirations", expirations(),
+                "hitRatio", requests == 0 ? 0.0 : (double) (hits() + coalesced()) / requests
+        );
+    }
+
+    private V lookup(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - entry.expiresAtNanos() >= 0) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(K key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, nanoClock.getAsLong() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.virtualthreads.client;
+
+import com.virtualthreads.context.RequestContext;
+import com.virtualthreads.model.MockApiResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+@Component
+public class BlockingWebClientMockApiClient implements MockApiClient {
+
+    private final WebClient webClient;
+
+    public BlockingWebClientMockApiClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public HttpClientType type() {
+        return HttpClientType.WEBCLIENT_BLOCKING;
+    }
+
+    @Override
+    public MockApiResponse get(String url) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> RequestContext.propagate(headers::set))
+                .retrieve()
+                .bodyToMono(MockApiResponse.class)
+                .block();
+    }
+
+    @Override
+    public List<MockApiResponse> getBatch(String url) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> RequestContext.propagate(headers::set))
+                .retrieve()
+                .bodyToFlux(MockApiResponse.class)
+                .collectList()
+                .block();
+    }
+}
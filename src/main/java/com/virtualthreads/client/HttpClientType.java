@@ -0,0 +1,10 @@
+package com.virtualthreads.client;
+
+public enum HttpClientType {
+    // java.net.http.HttpClient called synchronously; cheap to block on a virtual thread
+    JDK,
+    // WebClient composed without ever blocking; completes on Reactor Netty event-loop threads
+    WEBCLIENT_REACTIVE,
+    // WebClient with block() on the calling thread (the original implementation)
+    WEBCLIENT_BLOCKING
+}
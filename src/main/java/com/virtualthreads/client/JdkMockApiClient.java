@@ -0,0 +1,73 @@
+package com.virtualthreads.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.virtualthreads.context.RequestContext;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+@Component
+public class JdkMockApiClient implements MockApiClient {
+
+    private final HttpClient httpClient;
+    // Reused across calls; binds the record directly from Jackson's streaming parser
+    private final ObjectReader responseReader;
+    private final ObjectReader batchReader;
+    private final FanOutMetrics metrics;
+
+    public JdkMockApiClient(HttpClient httpClient, ObjectMapper objectMapper, FanOutMetrics metrics) {
+        this.httpClient = httpClient;
+        this.metrics = metrics;
+        this.responseReader = objectMapper.readerFor(MockApiResponse.class);
+        this.batchReader = objectMapper.readerForListOf(MockApiResponse.class);
+    }
+
+    @Override
+    public HttpClientType type() {
+        return HttpClientType.JDK;
+    }
+
+    @Override
+    public MockApiResponse get(String url) {
+        return send(url, responseReader);
+    }
+
+    @Override
+    public List<MockApiResponse> getBatch(String url) {
+        return send(url, batchReader);
+    }
+
+    private <T> T send(String url, ObjectReader reader) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).GET();
+        RequestContext.propagate(builder::header);
+        HttpRequest request = builder.build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() >= 400) {
+                    throw new IllegalStateException("HTTP " + response.statusCode() + " from " + url);
+                }
+                // Parse straight from the socket stream instead of buffering the body first
+                long startTime = System.nanoTime();
+                T value = reader.readValue(body);
+                metrics.recordSince(Stage.DESERIALIZE, FanOutMetrics.currentThreadType(), startTime);
+                return value;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error calling " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted calling " + url, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.virtualthreads.client;
+
+import com.virtualthreads.model.MockApiResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// One HTTP backend used by ExternalApiService to call the mock API
+public interface MockApiClient {
+
+    HttpClientType type();
+
+    // Performs the call and parses the JSON body, blocking the calling thread until done
+    MockApiResponse get(String url);
+
+    // Calls /mock-api/batch and returns one entry per id, blocking like get()
+    default List<MockApiResponse> getBatch(String url) {
+        throw new UnsupportedOperationException(type() + " client does not support batch calls");
+    }
+
+    // Non-blocking clients perform the whole call without holding a thread
+    default boolean isNonBlocking() {
+        return false;
+    }
+
+    default CompletableFuture<MockApiResponse> getAsync(String url) {
+        throw new UnsupportedOperationException(type() + " client does not support non-blocking calls");
+    }
+}
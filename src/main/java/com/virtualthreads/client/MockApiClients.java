@@ -0,0 +1,27 @@
+package com.virtualthreads.client;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MockApiClients {
+
+    private final Map<HttpClientType, MockApiClient> clients = new EnumMap<>(HttpClientType.class);
+
+    public MockApiClients(List<MockApiClient> clients) {
+        for (MockApiClient client : clients) {
+            this.clients.put(client.type(), client);
+        }
+    }
+
+    public MockApiClient get(HttpClientType type) {
+        MockApiClient client = clients.get(type);
+        if (client == null) {
+            throw new IllegalArgumentException("No HTTP client registered for " + type);
+        }
+        return client;
+    }
+}
@@ -0,0 +1,74 @@
+package com.virtualthreads.client;
+
+import com.virtualthreads.context.RequestContext;
+import com.virtualthreads.model.MockApiResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Component
+public class ReactiveWebClientMockApiClient implements MockApiClient {
+
+    private final WebClient webClient;
+
+    public ReactiveWebClientMockApiClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public HttpClientType type() {
+        return HttpClientType.WEBCLIENT_REACTIVE;
+    }
+
+    // Waits on the future rather than calling block(), so a virtual thread simply parks.
+    // An interrupt (a cancelled hedge or a passed deadline) cancels the underlying exchange.
+    @Override
+    public MockApiResponse get(String url) {
+        return await(getAsync(url), url);
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<MockApiResponse> getAsync(String url) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> RequestContext.propagate(headers::set))
+                .retrieve()
+                .bodyToMono(MockApiResponse.class)
+                .toFuture();
+    }
+
+    @Override
+    public List<MockApiResponse> getBatch(String url) {
+        CompletableFuture<List<MockApiResponse>> response = webClient.get()
+                .uri(url)
+                .headers(headers -> RequestContext.propagate(headers::set))
+                .retrieve()
+                .bodyToFlux(MockApiResponse.class)
+                .collectList()
+                .toFuture();
+        return await(response, url);
+    }
+
+    private static <T> T await(CompletableFuture<T> response, String url) {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted calling " + url, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error calling " + url, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.virtualthreads.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for calls to one downstream that adapts to observed round-trip times
+ * and errors, so the fan-out settles near the knee of the latency curve instead of pushing
+ * the backend into collapse. Callers over the limit wait in a bounded queue for up to
+ * {@code maxWait}; beyond that they are shed with {@link ConcurrencyLimitExceededException}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+    private static final double SHORT_RTT_WEIGHT = 1.0 / 10;
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final long slowCallNanos;
+    // Times each call's RTT; maxWait is still measured on the lock's condition
+    private final LongSupplier nanoClock;
+
+    // ReentrantLock rather than synchronized so waiting virtual threads unmount
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public AdaptiveConcurrencyLimiter(String name, LimitAlgorithm algorithm, int initialLimit, int minLimit,
+                                      int maxLimit, int maxQueue, Duration maxWait, Duration slowCall,
+                                      MeterRegistry meterRegistry) {
+        this(name, algorithm, initialLimit, minLimit, maxLimit, maxQueue, maxWait, slowCall, meterRegistry,
+                System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, LimitAlgorithm algorithm, int initialLimit, int minLimit, int maxLimit,
+                               int maxQueue, Duration maxWait, Duration slowCall, MeterRegistry meterRegistry,
+                               LongSupplier nanoClock) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < minLimit <= maxLimit");
+        }
+        this.name = name;
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.slowCallNanos = slowCall.toNanos();
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("fanout.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("fanout.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("fanout.limiter.queued", this, AdaptiveConcurrencyLimiter::getWaiting)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("fanout.limiter.rejected")
+                .tag("limiter", name).tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("fanout.limiter.rejected")
+                .tag("limiter", name).tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    public Token acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < getLimit()) {
+                inFlight++;
+                return new Token(nanoClock.getAsLong());
+            }
+            if (waiting >= maxQueue) {
+                queueFullRejections.increment();
+                throw new ConcurrencyLimitExceededException(String.format(
+                        "Concurrency limit of %d reached for %s and %d calls are already queued",
+                        getLimit(), name, waiting));
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= getLimit()) {
+                    if (remaining <= 0) {
+                        timeoutRejections.increment();
+                        throw new ConcurrencyLimitExceededException(String.format(
+                                "Waited %dms for a slot under the concurrency limit of %d for %s",
+                                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), getLimit(), name));
+                    }
+                    remaining = permitAvailable.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return new Token(nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public LimitAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    private void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int before = getLimit();
+            updateLimit(rttNanos, dropped);
+            inFlight--;
+            if (getLimit() > before) {
+                permitAvailable.signalAll();
+            } else {
+                permitAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLimit(long rttNanos, boolean dropped) {
+        if (dropped || (rttNanos >= 0 && rttNanos > slowCallNanos)) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        if (rttNanos < 0) {
+            return;
+        }
+        switch (algorithm) {
+            case AIMD -> {
+                // Only grow when the limit is actually being used, otherwise it drifts up for nothing
+                if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            case GRADIENT -> {
+                longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+                shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos + (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+                double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+                // sqrt(limit) of headroom lets the limit probe upwards while latency is flat
+                double newLimit = limit * gradient + Math.sqrt(limit);
+                limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+            }
+        }
+    }
+
+    // One admitted call; exactly one of the completion methods must be called
+    public final class Token {
+        private final long startNanos;
+
+        private Token(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void onSuccess() {
+            release(nanoClock.getAsLong() - startNanos, false);
+        }
+
+        // Errors and timeouts: the downstream is struggling, back off
+        public void onDropped() {
+            release(nanoClock.getAsLong() - startNanos, true);
+        }
+
+        // The call did not tell us anything about the downstream (e.g. cancelled locally)
+        public void onIgnore() {
+            release(-1, false);
+        }
+    }
+}
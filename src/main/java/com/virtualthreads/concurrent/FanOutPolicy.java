@@ -0,0 +1,9 @@
+package com.virtualthreads.concurrent;
+
+// How a structured fan-out decides that its result is known
+public enum FanOutPolicy {
+    // Every call has to succeed; the first failure cancels the remaining calls
+    FAIL_FAST,
+    // The fan-out completes once the required number of calls succeeded; the rest are cancelled
+    FIRST_K
+}
@@ -0,0 +1,74 @@
+package com.virtualthreads.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of concurrent calls per downstream host. Virtual threads make it
+ * cheap to start thousands of requests at once, so this is what keeps a slow backend
+ * from being stampeded: callers beyond the limit park until a permit is released.
+ */
+public class HostConcurrencyLimiter {
+
+    private final int maxConcurrencyPerHost;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(int maxConcurrencyPerHost, MeterRegistry meterRegistry) {
+        if (maxConcurrencyPerHost <= 0) {
+            throw new IllegalArgumentException("maxConcurrencyPerHost must be positive");
+        }
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Permit acquire(String host) throws InterruptedException {
+        Semaphore semaphore = permitsByHost.computeIfAbsent(host, this::createPermits);
+        semaphore.acquire();
+        // A Semaphore does not know who holds its permits, so a second close would let one extra caller in
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        };
+    }
+
+    public int getMaxConcurrencyPerHost() {
+        return maxConcurrencyPerHost;
+    }
+
+    public int getInFlight(String host) {
+        Semaphore semaphore = permitsByHost.get(host);
+        return semaphore == null ? 0 : maxConcurrencyPerHost - semaphore.availablePermits();
+    }
+
+    public int getWaiting(String host) {
+        Semaphore semaphore = permitsByHost.get(host);
+        return semaphore == null ? 0 : semaphore.getQueueLength();
+    }
+
+    private Semaphore createPermits(String host) {
+        Semaphore semaphore = new Semaphore(maxConcurrencyPerHost, true);
+        Gauge.builder("fanout.host.inflight", semaphore, s -> maxConcurrencyPerHost - s.availablePermits())
+                .description("Calls in flight to the downstream host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("fanout.host.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Calls waiting for a per-host concurrency permit")
+                .tag("host", host)
+                .register(meterRegistry);
+        return semaphore;
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
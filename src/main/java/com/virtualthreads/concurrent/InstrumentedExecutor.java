@@ -0,0 +1,99 @@
+package com.virtualthreads.concurrent;
+
+import com.virtualthreads.context.RequestContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executor wrapper that tracks how many tasks wait for a thread and how many are running, and
+// optionally runs each task in the RequestContext of the thread that submitted it
+public class InstrumentedExecutor implements Executor {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final boolean propagateRequestContext;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public InstrumentedExecutor(String name, ExecutorService delegate, MeterRegistry meterRegistry) {
+        this(name, delegate, meterRegistry, false);
+    }
+
+    public InstrumentedExecutor(String name, ExecutorService delegate, MeterRegistry meterRegistry,
+                                boolean propagateRequestContext) {
+        this.name = name;
+        this.delegate = delegate;
+        this.propagateRequestContext = propagateRequestContext;
+        Gauge.builder("fanout.executor.queued", queued, AtomicInteger::get)
+                .description("Tasks submitted but not yet started")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("fanout.executor.inflight", inFlight, AtomicInteger::get)
+                .description("Tasks currently running")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        run(propagateRequestContext ? RequestContext.wrap(task) : task);
+    }
+
+    // The same threads and meters, but tasks never run in the submitter's RequestContext: for work
+    // shared by several requests, such as a micro-batch, where no one caller's headers apply
+    public Executor withoutRequestContext() {
+        return this::run;
+    }
+
+    private void run(Runnable command) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                inFlight.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Returns true if all tasks finished within the timeout
+    boolean shutdown(Duration timeout) {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                delegate.shutdownNow();
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.virtualthreads.concurrent;
+
+public enum LimitAlgorithm {
+    // Additive increase while calls succeed, multiplicative decrease on errors or slow calls
+    AIMD,
+    // Scales the limit by how far the recent RTT has drifted above the long-term baseline
+    GRADIENT
+}
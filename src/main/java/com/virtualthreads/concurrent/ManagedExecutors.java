@@ -0,0 +1,136 @@
+package com.virtualthreads.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Owns every executor used for outbound fan-out and load generation, so they are
+ * created once with named threads and shut down with the application context
+ * instead of being created (and leaked) per call.
+ */
+@Component
+public class ManagedExecutors implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ManagedExecutors.class);
+
+    private final InstrumentedExecutor fetchPlatformExecutor;
+    private final InstrumentedExecutor fetchVirtualExecutor;
+    private final InstrumentedExecutor loadTestPlatformExecutor;
+    private final InstrumentedExecutor loadTestVirtualExecutor;
+    private final InstrumentedExecutor streamingExecutor;
+    private final InstrumentedExecutor callAttemptExecutor;
+    private final InstrumentedExecutor cacheLoadExecutor;
+    private final InstrumentedExecutor jobExecutor;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+    private final Duration shutdownTimeout;
+    private final int platformPoolSize;
+
+    public ManagedExecutors(MeterRegistry meterRegistry,
+                            @Value("${app.executors.platform-pool-size:200}") int platformPoolSize,
+                            @Value("${app.executors.load-test-platform-pool-size:200}") int loadTestPlatformPoolSize,
+                            @Value("${app.executors.max-concurrency-per-host:500}") int maxConcurrencyPerHost,
+                            @Value("${app.executors.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds,
+                            @Value("${app.executors.platform-target-throughput:0}") double platformTargetThroughput,
+                            @Value("${app.executors.platform-call-latency-ms:100}") long platformCallLatencyMs) {
+        // With a target throughput (outbound calls per second) the fetch pool is sized by Little's law
+        // instead of using the fixed size
+        if (platformTargetThroughput > 0) {
+            platformPoolSize = PoolSizing.littlesLaw(platformTargetThroughput, Duration.ofMillis(platformCallLatencyMs));
+            logger.info("Sized fetch-platform pool by Little's law: {} calls/s x {}ms = {} threads",
+                    platformTargetThroughput, platformCallLatencyMs, platformPoolSize);
+        }
+        this.platformPoolSize = platformPoolSize;
+        this.fetchPlatformExecutor = new InstrumentedExecutor("fetch-platform",
+                Executors.newFixedThreadPool(platformPoolSize, Thread.ofPlatform().name("fetch-platform-", 0).factory()),
+                meterRegistry, true);
+        this.fetchVirtualExecutor = new InstrumentedExecutor("fetch-virtual",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fetch-virtual-", 0).factory()),
+                meterRegistry, true);
+        // Jobs and load generators outlive the request that started them, so only the executors
+        // running a request's own calls carry its RequestContext into their tasks
+        this.loadTestPlatformExecutor = new InstrumentedExecutor("load-test-platform",
+                Executors.newFixedThreadPool(loadTestPlatformPoolSize, Thread.ofPlatform().name("load-test-platform-", 0).factory()),
+                meterRegistry);
+        this.loadTestVirtualExecutor = new InstrumentedExecutor("load-test-virtual",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("load-test-virtual-", 0).factory()),
+                meterRegistry);
+        this.streamingExecutor = new InstrumentedExecutor("streaming",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("streaming-", 0).factory()),
+                meterRegistry, true);
+        this.callAttemptExecutor = new InstrumentedExecutor("call-attempt",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("call-attempt-", 0).factory()),
+                meterRegistry, true);
+        // A cache load is shared by every request coalesced on it, so it carries none of their contexts
+        this.cacheLoadExecutor = new InstrumentedExecutor("cache-load",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-load-", 0).factory()),
+                meterRegistry);
+        this.jobExecutor = new InstrumentedExecutor("job",
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("job-", 0).factory()),
+                meterRegistry);
+        this.hostConcurrencyLimiter = new HostConcurrencyLimiter(maxConcurrencyPerHost, meterRegistry);
+        this.shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+    }
+
+    public InstrumentedExecutor fetchPlatformExecutor() {
+        return fetchPlatformExecutor;
+    }
+
+    public int platformPoolSize() {
+        return platformPoolSize;
+    }
+
+    public InstrumentedExecutor fetchVirtualExecutor() {
+        return fetchVirtualExecutor;
+    }
+
+    public InstrumentedExecutor loadTestPlatformExecutor() {
+        return loadTestPlatformExecutor;
+    }
+
+    public InstrumentedExecutor loadTestVirtualExecutor() {
+        return loadTestVirtualExecutor;
+    }
+
+    // Runs the loops that write streamed responses; a blocked client write parks only a virtual thread
+    public InstrumentedExecutor streamingExecutor() {
+        return streamingExecutor;
+    }
+
+    // Runs individual attempts of hedged or retried calls so they can be cancelled by interrupt
+    public InstrumentedExecutor callAttemptExecutor() {
+        return callAttemptExecutor;
+    }
+
+    // Loads response cache entries, so no single caller's cancellation or deadline fails the others
+    public InstrumentedExecutor cacheLoadExecutor() {
+        return cacheLoadExecutor;
+    }
+
+    // Runs background benchmark jobs; shutting it down interrupts, and so cancels, running jobs
+    public InstrumentedExecutor jobExecutor() {
+        return jobExecutor;
+    }
+
+    public HostConcurrencyLimiter hostConcurrencyLimiter() {
+        return hostConcurrencyLimiter;
+    }
+
+    @Override
+    public void destroy() {
+        for (InstrumentedExecutor executor : List.of(fetchPlatformExecutor, fetchVirtualExecutor,
+                loadTestPlatformExecutor, loadTestVirtualExecutor, streamingExecutor, callAttemptExecutor, cacheLoadExecutor,
+                jobExecutor)) {
+            if (!executor.shutdown(shutdownTimeout)) {
+                logger.warn("Executor {} did not terminate within {}s, remaining tasks were interrupted",
+                        executor.getName(), shutdownTimeout.toSeconds());
+            }
+        }
+    }
+}
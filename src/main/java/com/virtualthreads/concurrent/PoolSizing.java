@@ -0,0 +1,22 @@
+package com.virtualthreads.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Thread pool sizing for blocking work. By Little's law the number of calls in flight is the
+ * arrival rate times the time each call takes, so a pool of platform threads that each block
+ * for the whole call needs that many threads to sustain the rate without queueing.
+ */
+public final class PoolSizing {
+
+    private PoolSizing() {
+    }
+
+    public static int littlesLaw(double callsPerSecond, Duration callLatency) {
+        if (callsPerSecond <= 0 || callLatency.isNegative() || callLatency.isZero()) {
+            throw new IllegalArgumentException("callsPerSecond and callLatency must be positive");
+        }
+        double inFlight = callsPerSecond * callLatency.toNanos() / 1_000_000_000.0;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.ceil(inFlight)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.virtualthreads.concurrent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StructuredTaskScope that collects successful results as they complete and shuts
+ * itself down as soon as the outcome of the fan-out is decided by its {@link FanOutPolicy}.
+ * Shutting down interrupts the calls that are still running, so no downstream work
+ * continues after the result is known.
+ */
+public class StructuredFanOutScope<T> extends StructuredTaskScope<T> {
+
+    private final FanOutPolicy policy;
+    private final int requiredSuccesses;
+    private final int taskCount;
+
+    private final Queue<T> results = new ConcurrentLinkedQueue<>();
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger successCount = new AtomicInteger();
+    private final AtomicInteger failureCount = new AtomicInteger();
+    private volatile boolean timedOut;
+
+    public StructuredFanOutScope(String name, FanOutPolicy policy, int requiredSuccesses, int taskCount) {
+        super(name, Thread.ofVirtual().name(name + "-", 0).factory());
+        this.policy = policy;
+        this.requiredSuccesses = requiredSuccesses;
+        this.taskCount = taskCount;
+    }
+
+    @Override
+    protected void handleComplete(Subtask<? extends T> subtask) {
+        switch (subtask.state()) {
+            case SUCCESS -> {
+                results.add(subtask.get());
+                int successes = successCount.incrementAndGet();
+                if (policy == FanOutPolicy.FIRST_K && successes >= requiredSuccesses) {
+                    shutdown();
+                }
+            }
+            case FAILED -> {
+                failures.add(subtask.exception());
+                int failed = failureCount.incrementAndGet();
+                // With FIRST_K we give up once too many calls failed to ever reach the threshold
+                if (policy == FanOutPolicy.FAIL_FAST || taskCount - failed < requiredSuccesses) {
+                    shutdown();
+                }
+            }
+            default -> {
+                // UNAVAILABLE: the subtask was cancelled by a shutdown
+            }
+        }
+    }
+
+    // Waits until the outcome is decided or the deadline passes. On timeout the scope is
+    // shut down, which cancels the outstanding calls and keeps the results gathered so far.
+    public StructuredFanOutScope<T> joinUntilDeadline(Instant deadline) throws InterruptedException {
+        try {
+            joinUntil(deadline);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            // joinUntil leaves the scope open on timeout; shutting it down interrupts the calls still
+            // running, and the join after it returns without waiting for them to finish
+            shutdown();
+            join();
+        }
+        return this;
+    }
+
+    public List<T> results() {
+        ensureOwnerAndJoined();
+        return new ArrayList<>(results);
+    }
+
+    public List<Throwable> failures() {
+        ensureOwnerAndJoined();
+        return new ArrayList<>(failures);
+    }
+
+    public int successCount() {
+        return successCount.get();
+    }
+
+    public int failureCount() {
+        return failureCount.get();
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    // True when the policy's condition for a successful aggregation was met
+    public boolean isSatisfied() {
+        return switch (policy) {
+            case FAIL_FAST -> failureCount.get() == 0 && successCount.get() == taskCount;
+            case FIRST_K -> successCount.get() >= requiredSuccesses;
+        };
+    }
+}
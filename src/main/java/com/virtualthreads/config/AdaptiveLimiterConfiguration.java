@@ -0,0 +1,31 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.concurrent.AdaptiveConcurrencyLimiter;
+import com.virtualthreads.concurrent.LimitAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AdaptiveLimiterConfiguration {
+
+    // Opt-in: it gates every mock API call, including the plain thread-model comparisons
+    @Bean
+    @ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true")
+    public AdaptiveConcurrencyLimiter mockApiConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.limiter.algorithm:GRADIENT}") LimitAlgorithm algorithm,
+            @Value("${app.limiter.initial-limit:100}") int initialLimit,
+            @Value("${app.limiter.min-limit:10}") int minLimit,
+            @Value("${app.limiter.max-limit:500}") int maxLimit,
+            @Value("${app.limiter.max-queue:2000}") int maxQueue,
+            @Value("${app.limiter.max-wait:5s}") Duration maxWait,
+            @Value("${app.limiter.slow-call:2s}") Duration slowCall) {
+        return new AdaptiveConcurrencyLimiter("mock-api", algorithm, initialLimit, minLimit, maxLimit,
+                maxQueue, maxWait, slowCall, meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.service.ExternalApiService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BatchingProperties.class)
+public class BatchingConfiguration {
+
+    // requests / calls is the achieved batching factor; requests - ids counts duplicates folded together
+    @Bean
+    public MeterBinder batchingMetrics(ExternalApiService externalApiService) {
+        return registry -> {
+            FunctionCounter.builder("fanout.batch.requests", externalApiService, ExternalApiService::batchedRequests)
+                    .register(registry);
+            FunctionCounter.builder("fanout.batch.calls", externalApiService, ExternalApiService::batchCalls)
+                    .register(registry);
+            FunctionCounter.builder("fanout.batch.ids", externalApiService, ExternalApiService::batchedIds)
+                    .register(registry);
+        };
+    }
+}
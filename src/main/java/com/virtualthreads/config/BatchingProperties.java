@@ -0,0 +1,15 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Micro-batching of single-id mock API calls when a request passes batch=true
+@ConfigurationProperties(prefix = "app.batching")
+public record BatchingProperties(
+        // Distinct ids per /mock-api/batch call; ids travel in the query string, so keep this modest
+        @DefaultValue("100") int maxBatchSize,
+        // How long the first call in a batch waits for others to join it
+        @DefaultValue("5ms") Duration maxWait) {
+}
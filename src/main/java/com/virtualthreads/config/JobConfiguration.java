@@ -0,0 +1,17 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.jobs.JobManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JobProperties.class)
+public class JobConfiguration {
+
+    @Bean
+    public JobManager jobManager(JobProperties properties, ManagedExecutors executors) {
+        return new JobManager(executors.jobExecutor(), properties.maxConcurrent(), properties.maxRetained());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Background benchmark jobs submitted through /api/jobs
+@ConfigurationProperties(prefix = "app.jobs")
+public record JobProperties(
+        // Jobs running at once; more than one lets benchmarks skew each other's results
+        @DefaultValue("1") int maxConcurrent,
+        // Finished jobs (with their step results) kept for polling before the oldest are dropped
+        @DefaultValue("100") int maxRetained) {
+}
\ No newline at end of file
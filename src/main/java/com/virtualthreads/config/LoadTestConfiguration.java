@@ -0,0 +1,9 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfiguration {
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+// Where load tests send their traffic, and which worker nodes a distributed run uses by default
+@ConfigurationProperties(prefix = "app.load-test")
+public record LoadTestProperties(
+        // Base URL of the system under test; point this at another host or JVM to keep the generator off its CPUs
+        @DefaultValue("http://localhost:8080") String targetUrl,
+        // Base URLs of worker instances for /api/load-test/distributed, e.g. http://localhost:8091
+        @DefaultValue List<String> workers,
+        // Further base URLs a request may name as targetUrl, besides target-url itself
+        @DefaultValue List<String> allowedTargets) {
+
+    // Load is only ever sent to a configured base URL or a path under it, never to a host a request names
+    public boolean allowsTarget(String url) {
+        return isUnder(url, targetUrl) || allowedTargets.stream().anyMatch(base -> isUnder(url, base));
+    }
+
+    // A request may pick among the configured workers but not add its own
+    public boolean allowsWorker(String url) {
+        return workers.stream().anyMatch(worker -> stripTrailingSlash(worker).equals(stripTrailingSlash(url)));
+    }
+
+    private static boolean isUnder(String url, String base) {
+        String prefix = stripTrailingSlash(base);
+        return url.equals(prefix) || url.startsWith(prefix + "/") || url.startsWith(prefix + "?");
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.virtualthreads.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class OutboundHttpConfiguration {
+
+    // Pool gauges and the pending-acquire timer are published as reactor.netty.connection.provider.*
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider mockApiConnectionProvider(OutboundHttpProperties properties) {
+        return ConnectionProvider.builder("mock-api")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireMaxCount(properties.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.pendingAcquireTimeout())
+                .maxIdleTime(properties.maxIdleTime())
+                .maxLifeTime(properties.maxLifeTime())
+                .evictInBackground(properties.evictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient webClient(WebClient.Builder builder, ConnectionProvider mockApiConnectionProvider,
+                               OutboundHttpProperties properties) {
+        HttpClient httpClient = HttpClient.create(mockApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                // Collapse ids into one tag value so the connect/TLS/response timers stay low-cardinality
+                .metrics(true, uri -> uri.startsWith("/mock-api/") ? "/mock-api/{id}" : uri);
+        if (properties.h2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public java.net.http.HttpClient jdkHttpClient(OutboundHttpProperties properties) {
+        // The JDK client pools connections on its own; tune it with -Djdk.httpclient.keepalive.timeout
+        return java.net.http.HttpClient.newBuilder()
+                .connectTimeout(properties.connectTimeout())
+                .version(properties.h2c()
+                        ? java.net.http.HttpClient.Version.HTTP_2
+                        : java.net.http.HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+}
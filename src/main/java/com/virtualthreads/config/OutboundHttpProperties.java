@@ -0,0 +1,22 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Connection settings for the clients that call the mock API
+@ConfigurationProperties(prefix = "app.http.outbound")
+public record OutboundHttpProperties(
+        // Upper bound on pooled connections per remote address (Reactor Netty's default is 500)
+        @DefaultValue("500") int maxConnections,
+        // Requests allowed to wait for a pooled connection before being rejected
+        @DefaultValue("1000") int pendingAcquireMaxCount,
+        @DefaultValue("5s") Duration pendingAcquireTimeout,
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue("5m") Duration maxLifeTime,
+        @DefaultValue("15s") Duration evictionInterval,
+        @DefaultValue("5s") Duration connectTimeout,
+        // Talk cleartext HTTP/2 (prior knowledge) to the mock API so calls multiplex over few connections
+        @DefaultValue("false") boolean h2c) {
+}
@@ -0,0 +1,52 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.controller.AggregationHandler;
+import com.virtualthreads.controller.MockApiHandler;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.service.ApiOrchestratorService;
+import com.virtualthreads.service.ReactiveAggregationService;
+import com.virtualthreads.simulator.DownstreamSimulator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+// Functional routes serving /api and /mock-api when the application runs on Reactor Netty (webflux profile)
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfiguration {
+
+    @Bean
+    public AggregationHandler aggregationHandler(ApiOrchestratorService orchestratorService,
+                                                 ReactiveAggregationService reactiveAggregationService,
+                                                 ManagedExecutors executors) {
+        return new AggregationHandler(orchestratorService, reactiveAggregationService, executors);
+    }
+
+    @Bean
+    public MockApiHandler mockApiHandler(DownstreamSimulator simulator, FanOutMetrics metrics) {
+        return new MockApiHandler(simulator, metrics);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> apiRoutes(AggregationHandler aggregation, MockApiHandler mockApi) {
+        return RouterFunctions.route()
+                .path("/api", api -> api
+                        .GET("/platform-threads", aggregation::platformThreads)
+                        .GET("/virtual-threads", aggregation::virtualThreads)
+                        .GET("/structured", aggregation::structured)
+                        .GET("/reactive", aggregation::reactive)
+                        .GET("/compare", aggregation::compare)
+                        .GET("/scalability-test", aggregation::scalabilityTest)
+                        .GET("/thread-info", aggregation::threadInfo))
+                // batch and scenarios before {id}, which would match them too
+                .path("/mock-api", mock -> mock
+                        .GET("/batch", mockApi::getMockDataBatch)
+                        .GET("/scenarios", mockApi::scenarios)
+                        .GET("/{id}", mockApi::getMockData))
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.resilience.ResilientCaller;
+import com.virtualthreads.resilience.RetryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfiguration {
+
+    @Bean
+    public ResilientCaller resilientCaller(ResilienceProperties properties, ManagedExecutors executors,
+                                           MeterRegistry meterRegistry) {
+        return new ResilientCaller(
+                executors.callAttemptExecutor(),
+                new RetryBudget(properties.retryBudgetRatio(), properties.minRetriesPerSecond()),
+                properties.hedgePercentile(),
+                properties.minHedgeDelay(),
+                properties.latencyWindow(),
+                properties.minSamples(),
+                properties.backoffBase(),
+                properties.backoffMax(),
+                meterRegistry);
+    }
+}
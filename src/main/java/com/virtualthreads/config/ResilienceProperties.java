@@ -0,0 +1,24 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Hedging and retry settings for calls that pass hedge=true or retries>0
+@ConfigurationProperties(prefix = "app.resilience")
+public record ResilienceProperties(
+        // A hedge is sent once the first attempt has run longer than this percentile of recent calls
+        @DefaultValue("95") double hedgePercentile,
+        @DefaultValue("5ms") Duration minHedgeDelay,
+        // How often the percentile is recomputed, and from how many samples at least
+        @DefaultValue("5s") Duration latencyWindow,
+        @DefaultValue("50") long minSamples,
+        // Hedges plus retries may add at most this fraction of the original calls...
+        @DefaultValue("0.1") double retryBudgetRatio,
+        // ...plus this many per second regardless of traffic
+        @DefaultValue("10") int minRetriesPerSecond,
+        // Full-jitter exponential backoff between retries
+        @DefaultValue("20ms") Duration backoffBase,
+        @DefaultValue("1s") Duration backoffMax) {
+}
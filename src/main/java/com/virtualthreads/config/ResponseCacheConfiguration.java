@@ -0,0 +1,39 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.cache.SingleFlightCache;
+import com.virtualthreads.model.MockApiResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ResponseCacheConfiguration {
+
+    @Bean
+    public SingleFlightCache<String, MockApiResponse> responseCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.max-entries:10000}") int maxEntries,
+            @Value("${app.cache.ttl:30s}") Duration ttl) {
+        SingleFlightCache<String, MockApiResponse> cache = new SingleFlightCache<>(maxEntries, ttl);
+
+        FunctionCounter.builder("fanout.cache.requests", cache, SingleFlightCache::hits)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("fanout.cache.requests", cache, SingleFlightCache::misses)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("fanout.cache.requests", cache, SingleFlightCache::coalesced)
+                .tag("result", "coalesced").register(meterRegistry);
+        FunctionCounter.builder("fanout.cache.evictions", cache, SingleFlightCache::evictions)
+                .register(meterRegistry);
+        Gauge.builder("fanout.cache.size", cache, SingleFlightCache::size)
+                .register(meterRegistry);
+        Gauge.builder("fanout.cache.inflight", cache, SingleFlightCache::inFlightCount)
+                .register(meterRegistry);
+
+        return cache;
+    }
+}
@@ -0,0 +1,19 @@
+package com.virtualthreads.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualthreads.results.RunStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResultsProperties.class)
+public class ResultsConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.results.enabled", havingValue = "true")
+    public RunStore runStore(ResultsProperties properties, ObjectMapper objectMapper) {
+        return new RunStore(properties.file(), objectMapper);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+// Persistence of /api/compare, /api/scalability-test and load-test comparison runs, and regression criteria
+@ConfigurationProperties(prefix = "app.results")
+public record ResultsProperties(
+        @DefaultValue("true") boolean enabled,
+        // Append-only NDJSON file, one run per line; relative paths resolve against the working directory
+        @DefaultValue("results/runs.ndjson") Path file,
+        // How many earlier runs with the same parameters form the baseline when none is named
+        @DefaultValue("5") int baselineRuns,
+        // Significance level, and the changes tolerated before a significant difference counts as a regression
+        @DefaultValue("0.05") double alpha,
+        @DefaultValue("0.05") double maxThroughputDrop,
+        @DefaultValue("0.10") double maxP99Increase) {
+}
\ No newline at end of file
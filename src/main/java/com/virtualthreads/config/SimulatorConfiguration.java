@@ -0,0 +1,16 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.simulator.DownstreamSimulator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SimulatorProperties.class)
+public class SimulatorConfiguration {
+
+    @Bean
+    public DownstreamSimulator downstreamSimulator(SimulatorProperties properties) {
+        return new DownstreamSimulator(properties.scenarios());
+    }
+}
@@ -0,0 +1,15 @@
+package com.virtualthreads.config;
+
+import com.virtualthreads.simulator.SimulationSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+// Named scenarios, selected with ?scenario=<name> on the mock API or on the aggregation endpoints
+@ConfigurationProperties(prefix = "app.simulator")
+public record SimulatorProperties(Map<String, SimulationSettings> scenarios) {
+
+    public SimulatorProperties {
+        scenarios = scenarios != null ? Map.copyOf(scenarios) : Map.of();
+    }
+}
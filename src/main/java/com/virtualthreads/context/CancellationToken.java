@@ -0,0 +1,23 @@
+package com.virtualthreads.context;
+
+import java.util.concurrent.CancellationException;
+
+// Set once the request that owns it has ended; calls not yet started for it are skipped
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("The request that issued this call has already ended");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.virtualthreads.context;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds a RequestContext built from the request headers around the rest of the filter chain and
+ * echoes the correlation id on the response. The context's token is cancelled when the request
+ * ends; for an async request (streaming, SSE, Mono) that is when the async cycle completes, times
+ * out or fails, not when this thread leaves the filter.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContextPropagationFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestContext context = RequestContext.fromHeaders(request::getHeader);
+        response.setHeader(RequestContext.CORRELATION_ID_HEADER, context.correlationId());
+        try {
+            context.call(() -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CancelOnEnd(context.cancellation()));
+            } else {
+                context.cancellation().cancel();
+            }
+        }
+    }
+
+    private record CancelOnEnd(CancellationToken cancellation) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            cancellation.cancel();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            cancellation.cancel();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            cancellation.cancel();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async processing restarts; stay registered for the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.virtualthreads.context;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * What a request carries into its fan-out: a correlation id, the tenant, the deadline the caller
+ * gave it and a token cancelled once it ends. It is bound in a {@link ScopedValue} for the
+ * duration of the request rather than in a ThreadLocal or the MDC: StructuredTaskScope forks see
+ * the binding without copying it, and tasks handed to an executor (which inherits nothing) get the
+ * same immutable instance rebound by {@link #wrap(Runnable)}, so a 1000-way fan-out shares one
+ * object instead of cloning a per-thread map into every virtual thread.
+ */
+public record RequestContext(
+        String correlationId,
+        // Null when the caller named none
+        String tenant,
+        // Absolute System.nanoTime() deadline; 0 means the request is not time-bounded
+        long deadlineNanos,
+        CancellationToken cancellation) {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    // Milliseconds the caller is still willing to wait; re-sent downstream as what is left of it
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private static final ScopedValue<RequestContext> CURRENT = ScopedValue.newInstance();
+
+    // Builds the context from inbound request headers; a missing correlation id is generated
+    public static RequestContext fromHeaders(Function<String, String> header) {
+        String correlationId = header.apply(CORRELATION_ID_HEADER);
+        if (correlationId == null || correlationId.isBlank()) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        String tenant = header.apply(TENANT_HEADER);
+        long deadlineNanos = 0;
+        String timeout = header.apply(TIMEOUT_HEADER);
+        if (timeout != null) {
+            try {
+                long timeoutMs = Long.parseLong(timeout.trim());
+                // A caller whose budget is already spent gets a deadline that has passed
+                deadlineNanos = System.nanoTime() + Math.max(0, timeoutMs) * 1_000_000;
+            } catch (NumberFormatException e) {
+                // Not a number: treated as no deadline rather than failing the request
+            }
+        }
+        return new RequestContext(correlationId, tenant == null || tenant.isBlank() ? null : tenant,
+                deadlineNanos, new CancellationToken());
+    }
+
+    public static Optional<RequestContext> current() {
+        return Optional.ofNullable(CURRENT.orElse(null));
+    }
+
+    // Runs the operation with this context bound as the current one
+    public <T> T call(Callable<T> operation) throws Exception {
+        return ScopedValue.where(CURRENT, this).call(operation);
+    }
+
+    // Captures the current context, if any, so the task sees it on whatever thread runs it
+    public static Runnable wrap(Runnable task) {
+        RequestContext context = CURRENT.orElse(null);
+        if (context == null) {
+            return task;
+        }
+        return () -> ScopedValue.where(CURRENT, context).run(task);
+    }
+
+    // Writes the current context, if any, as headers of an outbound call
+    public static void propagate(BiConsumer<String, String> header) {
+        RequestContext context = CURRENT.orElse(null);
+        if (context == null) {
+            return;
+        }
+        header.accept(CORRELATION_ID_HEADER, context.correlationId);
+        if (context.tenant != null) {
+            header.accept(TENANT_HEADER, context.tenant);
+        }
+        if (context.hasDeadline()) {
+            header.accept(TIMEOUT_HEADER, Long.toString(context.remainingMillis()));
+        }
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != 0;
+    }
+
+    // Never negative; Long.MAX_VALUE without a deadline
+    public long remainingMillis() {
+        return hasDeadline() ? Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000) : Long.MAX_VALUE;
+    }
+}
\ No newline at end of file
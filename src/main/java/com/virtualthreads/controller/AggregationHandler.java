@@ -0,0 +1,124 @@
+package com.virtualthreads.controller;
+
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.concurrent.FanOutPolicy;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.context.RequestContext;
+import com.virtualthreads.resilience.CallPolicy;
+import com.virtualthreads.service.ApiOrchestratorService;
+import com.virtualthreads.service.FetchOptions;
+import com.virtualthreads.service.ReactiveAggregationService;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static com.virtualthreads.controller.QueryParams.booleanParam;
+import static com.virtualthreads.controller.QueryParams.enumParam;
+import static com.virtualthreads.controller.QueryParams.intParam;
+import static com.virtualthreads.controller.QueryParams.longParam;
+import static com.virtualthreads.controller.QueryParams.stringParam;
+
+/**
+ * The /api aggregation routes for the reactive (Netty) server, with the same parameters as
+ * VirtualThreadsController. An event loop must never block, so the thread-based variants are
+ * moved off it: the virtual-thread ones onto a virtual thread per request, the platform one onto
+ * Reactor's bounded elastic pool, WebFlux's own pool for blocking work. /api/reactive stays on
+ * the event loops throughout.
+ */
+public class AggregationHandler {
+
+    private final ApiOrchestratorService orchestratorService;
+    private final ReactiveAggregationService reactiveAggregationService;
+    private final Scheduler virtualScheduler;
+
+    public AggregationHandler(ApiOrchestratorService orchestratorService,
+                              ReactiveAggregationService reactiveAggregationService, ManagedExecutors executors) {
+        this.orchestratorService = orchestratorService;
+        this.reactiveAggregationService = reactiveAggregationService;
+        this.virtualScheduler = Schedulers.fromExecutor(executors.fetchVirtualExecutor());
+    }
+
+    public Mono<ServerResponse> platformThreads(ServerRequest request) {
+        int apiCount = intParam(request, "apiCount", 50);
+        int delayMs = intParam(request, "delayMs", 200);
+        FetchOptions options = fetchOptions(request, longParam(request, "deadlineMs", 0));
+        return blocking(request, () -> orchestratorService.aggregateWithPlatformThreads(apiCount, delayMs, options),
+                Schedulers.boundedElastic());
+    }
+
+    public Mono<ServerResponse> virtualThreads(ServerRequest request) {
+        int apiCount = intParam(request, "apiCount", 50);
+        int delayMs = intParam(request, "delayMs", 200);
+        FetchOptions options = fetchOptions(request, longParam(request, "deadlineMs", 0));
+        return blocking(request, () -> orchestratorService.aggregateWithVirtualThreads(apiCount, delayMs, options),
+                virtualScheduler);
+    }
+
+    public Mono<ServerResponse> structured(ServerRequest request) {
+        int apiCount = intParam(request, "apiCount", 50);
+        int delayMs = intParam(request, "delayMs", 200);
+        long deadlineMs = longParam(request, "deadlineMs", 5000);
+        FanOutPolicy policy = enumParam(request, "policy", FanOutPolicy.class, FanOutPolicy.FAIL_FAST);
+        int successThreshold = intParam(request, "successThreshold", 0);
+        // Calls inherit deadlineMs from the structured aggregation itself
+        FetchOptions options = fetchOptions(request, 0);
+        return blocking(request, () -> orchestratorService.aggregateWithStructuredConcurrency(apiCount, delayMs,
+                deadlineMs, policy, successThreshold, options), virtualScheduler);
+    }
+
+    public Mono<ServerResponse> reactive(ServerRequest request) {
+        return reactiveAggregationService.aggregate(intParam(request, "apiCount", 50),
+                        intParam(request, "delayMs", 200), booleanParam(request, "threadInfo", true),
+                        stringParam(request, "scenario"))
+                .flatMap(body -> ServerResponse.ok().bodyValue(body));
+    }
+
+    public Mono<ServerResponse> compare(ServerRequest request) {
+        int apiCount = intParam(request, "apiCount", 50);
+        int delayMs = intParam(request, "delayMs", 200);
+        return blocking(request, () -> orchestratorService.runComparison(apiCount, delayMs), virtualScheduler);
+    }
+
+    public Mono<ServerResponse> scalabilityTest(ServerRequest request) {
+        int maxApiCount = intParam(request, "maxApiCount", 1000);
+        int delayMs = intParam(request, "delayMs", 100);
+        int step = intParam(request, "step", 100);
+        return blocking(request, () -> orchestratorService.scalabilityTest(maxApiCount, delayMs, step),
+                virtualScheduler);
+    }
+
+    public Mono<ServerResponse> threadInfo(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(Map.of(
+                "thread", Thread.currentThread().toString(),
+                "isVirtual", Thread.currentThread().isVirtual()));
+    }
+
+    private static FetchOptions fetchOptions(ServerRequest request, long deadlineMs) {
+        return new FetchOptions(
+                enumParam(request, "client", HttpClientType.class, HttpClientType.WEBCLIENT_BLOCKING),
+                booleanParam(request, "cache", false),
+                booleanParam(request, "threadInfo", true),
+                booleanParam(request, "batch", false),
+                stringParam(request, "scenario"),
+                CallPolicy.of(booleanParam(request, "hedge", false), intParam(request, "retries", 0), deadlineMs));
+    }
+
+    // The event loop has no RequestContext binding to pass on, so one is built from the headers and
+    // bound on the thread that runs the aggregation. It is cancelled once the aggregation finishes or
+    // the client goes away.
+    private static Mono<ServerResponse> blocking(ServerRequest request, Callable<Map<String, Object>> aggregation,
+                                                 Scheduler scheduler) {
+        RequestContext context = RequestContext.fromHeaders(request.headers()::firstHeader);
+        return Mono.fromCallable(() -> context.call(aggregation))
+                .subscribeOn(scheduler)
+                .doFinally(signal -> context.cancellation().cancel())
+                .flatMap(body -> ServerResponse.ok()
+                        .header(RequestContext.CORRELATION_ID_HEADER, context.correlationId())
+                        .bodyValue(body));
+    }
+}
\ No newline at end of file
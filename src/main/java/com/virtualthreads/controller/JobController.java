@@ -0,0 +1,291 @@
+package com.virtualthreads.controller;
+
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.jobs.Job;
+import com.virtualthreads.jobs.JobEvent;
+import com.virtualthreads.jobs.JobManager;
+import com.virtualthreads.jobs.JobNotFoundException;
+import com.virtualthreads.service.ApiOrchestratorService;
+import com.virtualthreads.service.ForkedJvmBenchmark;
+import com.virtualthreads.service.LoadProfile;
+import com.virtualthreads.service.LoadTestService;
+import com.virtualthreads.service.MemoryFootprintRunner;
+import com.virtualthreads.service.OpenModelInterval;
+import com.virtualthreads.service.SchedulerMatrixRunner;
+import com.virtualthreads.service.ServerComparisonRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+// Scalability and load tests as background jobs: submit, poll or stream progress, cancel
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/jobs")
+public class JobController {
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    private final JobManager jobManager;
+    private final ApiOrchestratorService orchestratorService;
+    private final LoadTestService loadTestService;
+    private final SchedulerMatrixRunner schedulerMatrixRunner;
+    private final ServerComparisonRunner serverComparisonRunner;
+    private final MemoryFootprintRunner memoryFootprintRunner;
+    private final ManagedExecutors executors;
+
+    public JobController(JobManager jobManager, ApiOrchestratorService orchestratorService,
+                         LoadTestService loadTestService, SchedulerMatrixRunner schedulerMatrixRunner,
+                         ServerComparisonRunner serverComparisonRunner,
+                         MemoryFootprintRunner memoryFootprintRunner, ManagedExecutors executors) {
+        this.jobManager = jobManager;
+        this.orchestratorService = orchestratorService;
+        this.loadTestService = loadTestService;
+        this.schedulerMatrixRunner = schedulerMatrixRunner;
+        this.serverComparisonRunner = serverComparisonRunner;
+        this.memoryFootprintRunner = memoryFootprintRunner;
+        this.executors = executors;
+    }
+
+    @PostMapping("/scalability-test")
+    public ResponseEntity<Map<String, Object>> submitScalabilityTest(
+            @RequestParam(defaultValue = "1000") int maxApiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "100") int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        Job job = jobManager.submit("scalability-test",
+                Map.of("maxApiCount", maxApiCount, "delayMs", delayMs, "step", step),
+                maxApiCount / step,
+                running -> orchestratorService.scalabilityTest(maxApiCount, delayMs, step, running::step));
+        return accepted(job);
+    }
+
+    @PostMapping("/load-test/compare")
+    public ResponseEntity<Map<String, Object>> submitLoadTestComparison(
+            @RequestParam(defaultValue = "100") int concurrentUsers,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        Job job = jobManager.submit("load-test-compare",
+                Map.of("concurrentUsers", concurrentUsers, "apiCount", apiCount, "delayMs", delayMs, "cache", cache),
+                2,
+                running -> loadTestService.compareLoadTests(concurrentUsers, apiCount, delayMs, cache,
+                        listenerFor(running)));
+        return accepted(job);
+    }
+
+    @PostMapping("/load-test/open-model")
+    public ResponseEntity<Map<String, Object>> submitOpenModelLoadTest(
+            @RequestParam(defaultValue = "virtual") String threadType,
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        Job job = jobManager.submit("open-model", openModelParameters(threadType, profile, apiCount, delayMs, cache),
+                1,
+                running -> loadTestService.runOpenModelLoadTest(threadType, apiCount, delayMs, cache, profile,
+                        listenerFor(running)));
+        return accepted(job);
+    }
+
+    @PostMapping("/load-test/open-model/compare")
+    public ResponseEntity<Map<String, Object>> submitOpenModelComparison(
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        Job job = jobManager.submit("open-model-compare", openModelParameters(null, profile, apiCount, delayMs, cache),
+                2,
+                running -> loadTestService.compareOpenModelLoadTests(apiCount, delayMs, cache, profile,
+                        listenerFor(running)));
+        return accepted(job);
+    }
+
+    // One forked JVM per carrier parallelism setting, then platform-thread forks with the fixed and
+    // the Little's law sized pool; each fork is a step
+    @PostMapping("/scheduler-matrix")
+    public ResponseEntity<Map<String, Object>> submitSchedulerMatrix(
+            @RequestParam(required = false) List<Integer> parallelism,
+            @RequestParam(required = false) Integer maxPoolSize,
+            @RequestParam(required = false) Integer activeProcessorCount,
+            @RequestParam(defaultValue = "1000") int concurrentUsers,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "3") int rounds,
+            @RequestParam(defaultValue = "1") int warmupRounds,
+            @RequestParam(required = false) Double platformTargetRps) {
+        SchedulerMatrixRunner.Matrix matrix = new SchedulerMatrixRunner.Matrix(parallelism, maxPoolSize,
+                platformTargetRps, new ForkedJvmBenchmark.Workload(concurrentUsers, apiCount, delayMs, rounds,
+                warmupRounds, activeProcessorCount));
+        Job job = jobManager.submit("scheduler-matrix", matrix.toMap(), matrix.parallelism().size() + 2,
+                running -> schedulerMatrixRunner.run(matrix, running::step));
+        return accepted(job);
+    }
+
+    // One forked JVM per server profile (tomcat-virtual, tomcat-platform, webflux), each driven
+    // through its own endpoint unless threadType forces one for all; each fork is a step
+    @PostMapping("/server-comparison")
+    public ResponseEntity<Map<String, Object>> submitServerComparison(
+            @RequestParam(defaultValue = "tomcat-virtual,tomcat-platform,webflux") List<String> profiles,
+            @RequestParam(required = false) String threadType,
+            @RequestParam(required = false) Integer activeProcessorCount,
+            @RequestParam(defaultValue = "1000") int concurrentUsers,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "3") int rounds,
+            @RequestParam(defaultValue = "1") int warmupRounds) {
+        List<ServerComparisonRunner.ServerProfile> servers = profiles.stream()
+                .map(ServerComparisonRunner.ServerProfile::of)
+                .toList();
+        ForkedJvmBenchmark.Workload workload = new ForkedJvmBenchmark.Workload(concurrentUsers, apiCount, delayMs,
+                rounds, warmupRounds, activeProcessorCount);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("profiles", profiles);
+        parameters.put("threadType", threadType);
+        parameters.putAll(workload.toMap());
+        Job job = jobManager.submit("server-comparison", parameters, servers.size(),
+                running -> serverComparisonRunner.run(servers, threadType, workload, running::step));
+        return accepted(job);
+    }
+
+    // One forked JVM with native memory tracking per thread type, ramping blocked tasks through the
+    // levels; heapMb sets the fork's -Xmx so saturation matches the target pod. Each fork is a step
+    @PostMapping("/memory-footprint")
+    public ResponseEntity<Map<String, Object>> submitMemoryFootprint(
+            @RequestParam(defaultValue = "platform,virtual") List<String> threadTypes,
+            @RequestParam(defaultValue = "10000,100000,1000000") List<Integer> levels,
+            @RequestParam(defaultValue = "16") int stackDepth,
+            @RequestParam(required = false) Integer heapMb,
+            @RequestParam(required = false) Long podMemoryMb,
+            @RequestParam(defaultValue = "10000") int maxPlatformThreads) {
+        MemoryFootprintRunner.Footprint footprint = new MemoryFootprintRunner.Footprint(threadTypes, levels,
+                stackDepth, heapMb, podMemoryMb, maxPlatformThreads);
+        Job job = jobManager.submit("memory-footprint", footprint.toMap(), threadTypes.size(),
+                running -> memoryFootprintRunner.run(footprint, running::step));
+        return accepted(job);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listJobs() {
+        return ResponseEntity.ok(jobManager.list().stream().map(Job::summary).toList());
+    }
+
+    // Status, every step result so far, and the final result once completed
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(find(id).details());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String id) {
+        Job job = find(id);
+        jobManager.cancel(id);
+        return ResponseEntity.ok(job.summary());
+    }
+
+    // SSE: the steps completed so far, then "step" and "progress" events as they happen, ending with
+    // a "completed", "failed" or "cancelled" event carrying the job summary
+    @GetMapping("/{id}/events")
+    public SseEmitter streamJobEvents(@PathVariable String id) {
+        Job job = find(id);
+        SseEmitter emitter = new SseEmitter(0L);
+        // The job publishes while holding its lock, so events are queued here and written by our own thread
+        BlockingQueue<JobEvent> events = new LinkedBlockingQueue<>();
+        Consumer<JobEvent> listener = events::add;
+
+        executors.streamingExecutor().execute(() -> {
+            try {
+                job.subscribe(listener);
+                JobEvent event;
+                do {
+                    event = events.take();
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                } while (!event.isTerminal());
+                emitter.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.completeWithError(e);
+            } catch (Exception e) {
+                // Usually the client went away; the job itself carries on
+                logger.debug("Event stream for job {} closed: {}", id, e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                job.unsubscribe(listener);
+            }
+        });
+        return emitter;
+    }
+
+    private Job find(String id) {
+        return jobManager.find(id).orElseThrow(() -> new JobNotFoundException(id));
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(Job job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.id()))
+                .body(job.summary());
+    }
+
+    private static Map<String, Object> openModelParameters(String threadType, LoadProfile profile, int apiCount,
+                                                           int delayMs, boolean cache) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (threadType != null) {
+            parameters.put("threadType", threadType);
+        }
+        parameters.put("targetRps", profile.targetRps());
+        parameters.put("rampUpSec", profile.rampUp().toSeconds());
+        parameters.put("steadyStateSec", profile.steadyState().toSeconds());
+        parameters.put("coolDownSec", profile.coolDown().toSeconds());
+        parameters.put("maxInFlight", profile.maxInFlight());
+        parameters.put("apiCount", apiCount);
+        parameters.put("delayMs", delayMs);
+        parameters.put("cache", cache);
+        return parameters;
+    }
+
+    // Each finished run becomes a step; each open-model interval a progress event
+    private static LoadTestService.LoadTestListener listenerFor(Job job) {
+        return new LoadTestService.LoadTestListener() {
+            @Override
+            public void onRun(String threadType, Map<String, Object> results) {
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("threadType", threadType);
+                step.put("results", results);
+                job.step(step);
+            }
+
+            @Override
+            public void onInterval(String threadType, OpenModelInterval interval) {
+                Map<String, Object> update = new LinkedHashMap<>();
+                update.put("threadType", threadType);
+                update.putAll(interval.toMap());
+                job.progress(update);
+            }
+        };
+    }
+}
\ No newline at end of file
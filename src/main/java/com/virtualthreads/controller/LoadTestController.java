@@ -1,45 +1,159 @@
 package com.virtualthreads.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.config.LoadTestProperties;
+import com.virtualthreads.service.DistributedLoadCoordinator;
+import com.virtualthreads.service.LoadTargetNotAllowedException;
+import com.virtualthreads.service.LoadProfile;
 import com.virtualthreads.service.LoadTestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/load-test")
 public class LoadTestController {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestController.class);
 
     private final LoadTestService loadTestService;
+    private final DistributedLoadCoordinator distributedLoadCoordinator;
+    private final ManagedExecutors executors;
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties properties;
     
-    public LoadTestController(LoadTestService loadTestService) {
+    public LoadTestController(LoadTestService loadTestService, DistributedLoadCoordinator distributedLoadCoordinator,
+                              ManagedExecutors executors, ObjectMapper objectMapper, LoadTestProperties properties) {
         this.loadTestService = loadTestService;
+        this.distributedLoadCoordinator = distributedLoadCoordinator;
+        this.executors = executors;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
     }
     
     @GetMapping("/platform-threads")
     public ResponseEntity<Map<String, Object>> testPlatformThreads(
             @RequestParam(defaultValue = "100") int concurrentUsers,
             @RequestParam(defaultValue = "20") int apiCount,
-            @RequestParam(defaultValue = "100") int delayMs) {
-        return ResponseEntity.ok(loadTestService.runPlatformThreadsLoadTest(concurrentUsers, apiCount, delayMs));
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        return ResponseEntity.ok(loadTestService.runPlatformThreadsLoadTest(concurrentUsers, apiCount, delayMs, cache));
     }
     
     @GetMapping("/virtual-threads")
     public ResponseEntity<Map<String, Object>> testVirtualThreads(
             @RequestParam(defaultValue = "100") int concurrentUsers,
             @RequestParam(defaultValue = "20") int apiCount,
-            @RequestParam(defaultValue = "100") int delayMs) {
-        return ResponseEntity.ok(loadTestService.runVirtualThreadsLoadTest(concurrentUsers, apiCount, delayMs));
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        return ResponseEntity.ok(loadTestService.runVirtualThreadsLoadTest(concurrentUsers, apiCount, delayMs, cache));
     }
     
     @GetMapping("/compare")
     public ResponseEntity<Map<String, Object>> compareLoadTests(
             @RequestParam(defaultValue = "100") int concurrentUsers,
             @RequestParam(defaultValue = "20") int apiCount,
-            @RequestParam(defaultValue = "100") int delayMs) {
-        return ResponseEntity.ok(loadTestService.compareLoadTests(concurrentUsers, apiCount, delayMs));
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        return ResponseEntity.ok(loadTestService.compareLoadTests(concurrentUsers, apiCount, delayMs, cache));
+    }
+
+    @GetMapping("/open-model")
+    public ResponseEntity<Map<String, Object>> openModelLoadTest(
+            @RequestParam(defaultValue = "virtual") String threadType,
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        return ResponseEntity.ok(loadTestService.runOpenModelLoadTest(threadType, apiCount, delayMs, cache, profile));
+    }
+
+    @GetMapping("/open-model/compare")
+    public ResponseEntity<Map<String, Object>> compareOpenModelLoadTests(
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        return ResponseEntity.ok(loadTestService.compareOpenModelLoadTests(apiCount, delayMs, cache, profile));
+    }
+
+    // Coordinator: splits the open-model rate across worker instances and merges their histograms
+    @GetMapping("/distributed")
+    public ResponseEntity<Map<String, Object>> distributedLoadTest(
+            @RequestParam(required = false) List<String> workers,
+            @RequestParam(required = false) String targetUrl,
+            @RequestParam(defaultValue = "virtual") String threadType,
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "20") int apiCount,
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "false") boolean cache) {
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        return ResponseEntity.ok(distributedLoadCoordinator.run(workers, targetUrl, threadType, apiCount, delayMs,
+                cache, profile));
+    }
+
+    // Worker: runs one slice of a distributed test against targetUrl and streams NDJSON interval
+    // lines (base64 compressed HdrHistograms) followed by a summary line. targetUrl must be under
+    // this worker's own app.load-test.target-url or allowed-targets
+    @GetMapping("/worker/open-model")
+    public ResponseEntity<ResponseBodyEmitter> workerOpenModel(
+            @RequestParam String targetUrl,
+            @RequestParam(defaultValue = "worker") String workerId,
+            @RequestParam(defaultValue = "100") int targetRps,
+            @RequestParam(defaultValue = "5") int rampUpSec,
+            @RequestParam(defaultValue = "30") int durationSec,
+            @RequestParam(defaultValue = "5") int coolDownSec,
+            @RequestParam(defaultValue = "10000") int maxInFlight) {
+        if (!properties.allowsTarget(targetUrl)) {
+            throw new LoadTargetNotAllowedException("Target " + targetUrl
+                    + " is not under app.load-test.target-url or app.load-test.allowed-targets");
+        }
+        LoadProfile profile = new LoadProfile(targetRps, Duration.ofSeconds(rampUpSec),
+                Duration.ofSeconds(durationSec), Duration.ofSeconds(coolDownSec), maxInFlight);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+
+        executors.streamingExecutor().execute(() -> {
+            try {
+                loadTestService.runWorkerSlice(workerId, targetUrl, profile, line ->
+                        emitter.send(objectMapper.writeValueAsString(line) + "\n", MediaType.APPLICATION_NDJSON));
+                emitter.complete();
+            } catch (Exception e) {
+                logger.warn("Worker slice aborted: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.virtualthreads.controller;
+
+import com.virtualthreads.monitoring.MemoryFootprintProbe;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Memory cost of blocked tasks in this JVM. Runs in-process and holds the request until the ramp
+// ends; the memory-footprint job runs it in forked JVMs with native memory tracking instead
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/memory-footprint")
+public class MemoryFootprintController {
+
+    private final MemoryFootprintProbe probe;
+
+    public MemoryFootprintController(MemoryFootprintProbe probe) {
+        this.probe = probe;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> measure(
+            @RequestParam(defaultValue = "virtual") String threadType,
+            @RequestParam(defaultValue = "10000,100000") List<Integer> levels,
+            @RequestParam(defaultValue = "16") int stackDepth,
+            @RequestParam(defaultValue = "60") int startTimeoutSec,
+            @RequestParam(required = false) Long podMemoryMb) {
+        MemoryFootprintProbe.Probe settings = new MemoryFootprintProbe.Probe(threadType, levels, stackDepth,
+                Duration.ofSeconds(startTimeoutSec), podMemoryMb == null ? null : podMemoryMb * 1024 * 1024);
+        return ResponseEntity.ok(probe.run(settings));
+    }
+}
\ No newline at end of file
@@ -1,45 +1,117 @@
 package com.virtualthreads.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import com.virtualthreads.simulator.DownstreamSimulator;
+import com.virtualthreads.simulator.SimulationOutcome;
+import com.virtualthreads.simulator.SimulationSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
+// Servlet stack; the reactive server serves the same routes from MockApiHandler
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/mock-api")
 public class MockApiController {
+
+    private final ObjectMapper objectMapper;
+    private final DownstreamSimulator simulator;
+    private final FanOutMetrics metrics;
+
+    public MockApiController(ObjectMapper objectMapper, DownstreamSimulator simulator, FanOutMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.simulator = simulator;
+        this.metrics = metrics;
+    }
     
-    private final Random random = new Random();
-    
+    // Latency, failures and rate limiting come from the named scenario, overridden by any
+    // SimulationSettings fields passed as query parameters (latency=LOGNORMAL&errorRate=0.01...)
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getMockData(
+    public ResponseEntity<MockApiResponse> getMockData(
             @PathVariable String id,
-            @RequestParam(defaultValue = "0") int delayMs) {
+            @RequestParam(defaultValue = "0") int delayMs,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(required = false) String scenario,
+            SimulationSettings overrides) {
+        long startTime = System.nanoTime();
         
         // Simulate processing time if specified
-        if (delayMs > 0) {
-            try {
-                Thread.sleep(delayMs);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        SimulationOutcome outcome = simulator.simulate("single", delayMs, simulator.resolve(scenario, overrides));
+        if (outcome != SimulationOutcome.OK) {
+            return failure(outcome);
         }
         
-        // Generate random response data
-        Map<String, Object> response = Map.of(
-            "id", id,
-            "timestamp", LocalDateTime.now().toString(),
-            "value", random.nextInt(1000),
-            "threadInfo", Thread.currentThread().toString(),
-            "isVirtual", Thread.currentThread().isVirtual()
-        );
-        
+        MockApiResponse response = MockApiResponse.generate(id, threadInfo);
+        metrics.recordSince(Stage.SERVER, FanOutMetrics.currentThreadType(), startTime);
         return ResponseEntity.ok(response);
     }
+
+    // One simulated downstream read for many ids: delayMs is paid once per batch, not per id.
+    // With format=ndjson each result is written as its own line as soon as it is generated.
+    @GetMapping("/batch")
+    public ResponseEntity<?> getMockDataBatch(
+            @RequestParam List<String> ids,
+            @RequestParam(defaultValue = "0") int delayMs,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) String scenario,
+            SimulationSettings overrides) {
+
+        // The batch endpoint has its own token bucket, and one outcome applies to the whole batch
+        SimulationOutcome outcome = simulator.simulate("batch", delayMs, simulator.resolve(scenario, overrides));
+        if (outcome != SimulationOutcome.OK) {
+            return failure(outcome);
+        }
+
+        if ("ndjson".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = out -> {
+                // One generator for the whole stream; the container closes the response stream, not it
+                try (JsonGenerator generator = objectMapper.createGenerator(out)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                    // Each value ends its own line instead of the default space between root values
+                    generator.setRootValueSeparator(null);
+                    for (String id : ids) {
+                        generator.writeObject(MockApiResponse.generate(id, threadInfo));
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    }
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+
+        List<MockApiResponse> responses = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            responses.add(MockApiResponse.generate(id, threadInfo));
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/scenarios")
+    public ResponseEntity<Map<String, SimulationSettings>> scenarios() {
+        return ResponseEntity.ok(simulator.scenarios());
+    }
+
+    private static <T> ResponseEntity<T> failure(SimulationOutcome outcome) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(outcome.status());
+        if (outcome == SimulationOutcome.RATE_LIMITED) {
+            builder.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return builder.build();
+    }
 }
\ No newline at end of file
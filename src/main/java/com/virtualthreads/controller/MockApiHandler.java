@@ -0,0 +1,110 @@
+package com.virtualthreads.controller;
+
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import com.virtualthreads.simulator.DownstreamSimulator;
+import com.virtualthreads.simulator.SimulationOutcome;
+import com.virtualthreads.simulator.SimulationPlan;
+import com.virtualthreads.simulator.SimulationSettings;
+import com.virtualthreads.simulator.WorkMode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.virtualthreads.controller.QueryParams.booleanParam;
+import static com.virtualthreads.controller.QueryParams.intParam;
+import static com.virtualthreads.controller.QueryParams.stringParam;
+
+// The /mock-api routes for the reactive server, behaving like MockApiController
+public class MockApiHandler {
+
+    private final DownstreamSimulator simulator;
+    private final FanOutMetrics metrics;
+
+    public MockApiHandler(DownstreamSimulator simulator, FanOutMetrics metrics) {
+        this.simulator = simulator;
+        this.metrics = metrics;
+    }
+
+    public Mono<ServerResponse> getMockData(ServerRequest request) {
+        long startTime = System.nanoTime();
+        String id = request.pathVariable("id");
+        int delayMs = intParam(request, "delayMs", 0);
+        boolean threadInfo = booleanParam(request, "threadInfo", true);
+        String scenario = stringParam(request, "scenario");
+
+        return request.bind(SimulationSettings.class)
+                .flatMap(overrides -> simulate("single", delayMs, simulator.resolve(scenario, overrides)))
+                .flatMap(outcome -> {
+                    if (outcome != SimulationOutcome.OK) {
+                        return failure(outcome);
+                    }
+                    MockApiResponse response = MockApiResponse.generate(id, threadInfo);
+                    metrics.recordSince(Stage.SERVER, "reactive", startTime);
+                    return ServerResponse.ok().bodyValue(response);
+                });
+    }
+
+    public Mono<ServerResponse> getMockDataBatch(ServerRequest request) {
+        List<String> ids = request.queryParams().getOrDefault("ids", List.of()).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(id -> !id.isBlank())
+                .toList();
+        if (ids.isEmpty()) {
+            throw new ServerWebInputException("Required query parameter 'ids' is not present");
+        }
+        int delayMs = intParam(request, "delayMs", 0);
+        boolean threadInfo = booleanParam(request, "threadInfo", true);
+        boolean ndjson = "ndjson".equalsIgnoreCase(request.queryParam("format").orElse("json"));
+        String scenario = stringParam(request, "scenario");
+
+        return request.bind(SimulationSettings.class)
+                .flatMap(overrides -> simulate("batch", delayMs, simulator.resolve(scenario, overrides)))
+                .flatMap(outcome -> {
+                    if (outcome != SimulationOutcome.OK) {
+                        return failure(outcome);
+                    }
+                    Flux<MockApiResponse> responses = Flux.fromIterable(ids)
+                            .map(id -> MockApiResponse.generate(id, threadInfo));
+                    // A JSON array, or with format=ndjson one line per result, written as generated
+                    return ServerResponse.ok()
+                            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                            .body(responses, MockApiResponse.class);
+                });
+    }
+
+    public Mono<ServerResponse> scenarios(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(simulator.scenarios());
+    }
+
+    private Mono<SimulationOutcome> simulate(String endpoint, int delayMs, SimulationSettings settings) {
+        SimulationPlan plan = simulator.plan(endpoint, delayMs, settings);
+        if (plan.work() == WorkMode.SLEEP) {
+            // A timer stands in for the sleep, so no thread is held while the latency elapses
+            return Mono.delay(Duration.ofNanos(plan.latencyNanos())).thenReturn(plan.outcome());
+        }
+        // Spinning or hashing really occupies a thread; keep it off the event loops
+        return Mono.fromCallable(() -> {
+            DownstreamSimulator.perform(plan);
+            return plan.outcome();
+        }).subscribeOn(Schedulers.parallel());
+    }
+
+    private static Mono<ServerResponse> failure(SimulationOutcome outcome) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(outcome.status());
+        if (outcome == SimulationOutcome.RATE_LIMITED) {
+            builder.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return builder.build();
+    }
+}
\ No newline at end of file
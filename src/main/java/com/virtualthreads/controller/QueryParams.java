@@ -0,0 +1,44 @@
+package com.virtualthreads.controller;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+// Query parameter parsing for the functional handlers, with the defaults the annotated controllers use
+final class QueryParams {
+
+    private QueryParams() {
+    }
+
+    static int intParam(ServerRequest request, String name, int defaultValue) {
+        return parse(request, name, Integer::parseInt).orElse(defaultValue);
+    }
+
+    static long longParam(ServerRequest request, String name, long defaultValue) {
+        return parse(request, name, Long::parseLong).orElse(defaultValue);
+    }
+
+    static boolean booleanParam(ServerRequest request, String name, boolean defaultValue) {
+        return parse(request, name, Boolean::parseBoolean).orElse(defaultValue);
+    }
+
+    static <E extends Enum<E>> E enumParam(ServerRequest request, String name, Class<E> type, E defaultValue) {
+        return parse(request, name, value -> Enum.valueOf(type, value)).orElse(defaultValue);
+    }
+
+    static String stringParam(ServerRequest request, String name) {
+        return request.queryParam(name).filter(value -> !value.isBlank()).orElse(null);
+    }
+
+    // A malformed value is a 400, as with @RequestParam
+    private static <T> Optional<T> parse(ServerRequest request, String name, Function<String, T> parser) {
+        Optional<String> value = request.queryParam(name).filter(v -> !v.isBlank());
+        try {
+            return value.map(parser);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("Invalid value for query parameter '" + name + "': " + value.get());
+        }
+    }
+}
\ No newline at end of file
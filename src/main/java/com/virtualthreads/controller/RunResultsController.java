@@ -0,0 +1,92 @@
+package com.virtualthreads.controller;
+
+import com.virtualthreads.config.ResultsProperties;
+import com.virtualthreads.results.RegressionAnalyzer;
+import com.virtualthreads.results.RunNotFoundException;
+import com.virtualthreads.results.RunRecord;
+import com.virtualthreads.results.RunStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// History of persisted benchmark runs and run-over-run regression checks
+@RestController
+@RequestMapping("/api/runs")
+@ConditionalOnProperty(name = "app.results.enabled", havingValue = "true")
+public class RunResultsController {
+
+    private final RunStore runStore;
+    private final ResultsProperties properties;
+
+    public RunResultsController(RunStore runStore, ResultsProperties properties) {
+        this.runStore = runStore;
+        this.properties = properties;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listRuns(
+            @RequestParam(required = false) String kind,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(runStore.list(kind, limit).stream()
+                .map(RunResultsController::summary)
+                .toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RunRecord> getRun(@PathVariable String id) {
+        return ResponseEntity.ok(find(id));
+    }
+
+    // Compares the candidate (default: the latest run of the kind) with the named baseline runs, or
+    // with the most recent earlier runs that used the same parameters
+    @GetMapping("/compare")
+    public ResponseEntity<Map<String, Object>> compareRuns(
+            @RequestParam(required = false) String candidate,
+            @RequestParam(required = false) List<String> baseline,
+            @RequestParam(required = false) String kind,
+            @RequestParam(name = "baselineRuns", required = false) Integer baselineCount,
+            @RequestParam(required = false) Double alpha,
+            @RequestParam(required = false) Double maxThroughputDrop,
+            @RequestParam(required = false) Double maxP99Increase) {
+        RunRecord candidateRun = candidate != null
+                ? find(candidate)
+                : runStore.list(kind, 1).stream().findFirst()
+                        .orElseThrow(() -> new RunNotFoundException(kind != null
+                                ? "No " + kind + " runs recorded"
+                                : "No runs recorded"));
+        List<RunRecord> baselineRecords = baseline != null && !baseline.isEmpty()
+                ? baseline.stream().map(this::find).toList()
+                : runStore.baselineFor(candidateRun, baselineCount != null ? baselineCount : properties.baselineRuns());
+        if (baselineRecords.isEmpty()) {
+            throw new RunNotFoundException("No earlier " + candidateRun.kind() + " run with the same parameters as "
+                    + candidateRun.id());
+        }
+        RegressionAnalyzer.Criteria criteria = new RegressionAnalyzer.Criteria(
+                alpha != null ? alpha : properties.alpha(),
+                maxThroughputDrop != null ? maxThroughputDrop : properties.maxThroughputDrop(),
+                maxP99Increase != null ? maxP99Increase : properties.maxP99Increase());
+        return ResponseEntity.ok(RegressionAnalyzer.compare(baselineRecords, candidateRun, criteria));
+    }
+
+    private RunRecord find(String id) {
+        return runStore.find(id).orElseThrow(() -> new RunNotFoundException("Unknown run: " + id));
+    }
+
+    private static Map<String, Object> summary(RunRecord run) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", run.id());
+        summary.put("kind", run.kind());
+        summary.put("timestamp", run.timestamp());
+        summary.put("parameters", run.parameters());
+        summary.put("series", run.series().keySet());
+        return summary;
+    }
+}
\ No newline at end of file
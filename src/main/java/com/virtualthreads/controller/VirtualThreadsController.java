@@ -1,33 +1,165 @@
 package com.virtualthreads.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.concurrent.FanOutPolicy;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.model.AggregatedResult;
+import com.virtualthreads.resilience.CallPolicy;
 import com.virtualthreads.service.ApiOrchestratorService;
+import com.virtualthreads.service.FetchOptions;
+import com.virtualthreads.service.ReactiveAggregationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
+// Servlet stack; the reactive server serves these routes from AggregationHandler
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class VirtualThreadsController {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsController.class);
 
     private final ApiOrchestratorService orchestratorService;
+    private final ReactiveAggregationService reactiveAggregationService;
+    private final ManagedExecutors executors;
+    private final ObjectMapper objectMapper;
 
-    public VirtualThreadsController(ApiOrchestratorService orchestratorService) {
+    public VirtualThreadsController(ApiOrchestratorService orchestratorService,
+                                    ReactiveAggregationService reactiveAggregationService,
+                                    ManagedExecutors executors, ObjectMapper objectMapper) {
         this.orchestratorService = orchestratorService;
+        this.reactiveAggregationService = reactiveAggregationService;
+        this.executors = executors;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/platform-threads")
     public ResponseEntity<Map<String, Object>> testPlatformThreads(
             @RequestParam(defaultValue = "50") int apiCount,
-            @RequestParam(defaultValue = "200") int delayMs) {
-        return ResponseEntity.ok(orchestratorService.aggregateWithPlatformThreads(apiCount, delayMs));
+            @RequestParam(defaultValue = "200") int delayMs,
+            @RequestParam(defaultValue = "WEBCLIENT_BLOCKING") HttpClientType client,
+            @RequestParam(defaultValue = "false") boolean cache,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(defaultValue = "false") boolean batch,
+            @RequestParam(required = false) String scenario,
+            @RequestParam(defaultValue = "false") boolean hedge,
+            @RequestParam(defaultValue = "0") int retries,
+            @RequestParam(defaultValue = "0") long deadlineMs) {
+        return ResponseEntity.ok(orchestratorService.aggregateWithPlatformThreads(apiCount, delayMs,
+                new FetchOptions(client, cache, threadInfo, batch, scenario,
+                        CallPolicy.of(hedge, retries, deadlineMs))));
     }
 
     @GetMapping("/virtual-threads")
     public ResponseEntity<Map<String, Object>> testVirtualThreads(
             @RequestParam(defaultValue = "50") int apiCount,
-            @RequestParam(defaultValue = "200") int delayMs) {
-        return ResponseEntity.ok(orchestratorService.aggregateWithVirtualThreads(apiCount, delayMs));
+            @RequestParam(defaultValue = "200") int delayMs,
+            @RequestParam(defaultValue = "WEBCLIENT_BLOCKING") HttpClientType client,
+            @RequestParam(defaultValue = "false") boolean cache,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(defaultValue = "false") boolean batch,
+            @RequestParam(required = false) String scenario,
+            @RequestParam(defaultValue = "false") boolean hedge,
+            @RequestParam(defaultValue = "0") int retries,
+            @RequestParam(defaultValue = "0") long deadlineMs) {
+        return ResponseEntity.ok(orchestratorService.aggregateWithVirtualThreads(apiCount, delayMs,
+                new FetchOptions(client, cache, threadInfo, batch, scenario,
+                        CallPolicy.of(hedge, retries, deadlineMs))));
+    }
+
+    // Non-blocking fan-out; Spring MVC completes the request asynchronously when the Mono emits
+    @GetMapping("/reactive")
+    public Mono<Map<String, Object>> testReactive(
+            @RequestParam(defaultValue = "50") int apiCount,
+            @RequestParam(defaultValue = "200") int delayMs,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(required = false) String scenario) {
+        return reactiveAggregationService.aggregate(apiCount, delayMs, threadInfo, scenario);
+    }
+
+    // Streams each result as NDJSON (one JSON object per line) or as SSE events as soon as it completes
+    @GetMapping("/virtual-threads/stream")
+    public ResponseEntity<ResponseBodyEmitter> streamVirtualThreads(
+            @RequestParam(defaultValue = "50") int apiCount,
+            @RequestParam(defaultValue = "200") int delayMs,
+            @RequestParam(defaultValue = "WEBCLIENT_BLOCKING") HttpClientType client,
+            @RequestParam(defaultValue = "false") boolean cache,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(defaultValue = "false") boolean batch,
+            @RequestParam(required = false) String scenario,
+            @RequestParam(defaultValue = "false") boolean hedge,
+            @RequestParam(defaultValue = "0") int retries,
+            @RequestParam(defaultValue = "0") long deadlineMs,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "256") int window) {
+        boolean sse = "sse".equalsIgnoreCase(format);
+        // No async timeout: the stream ends when the last result has been written
+        ResponseBodyEmitter emitter = sse ? new SseEmitter(0L) : new ResponseBodyEmitter(0L);
+        FetchOptions options = new FetchOptions(client, cache, threadInfo, batch, scenario,
+                CallPolicy.of(hedge, retries, deadlineMs));
+
+        executors.streamingExecutor().execute(() -> {
+            try {
+                Map<String, Object> summary = orchestratorService.streamWithVirtualThreads(
+                        apiCount, delayMs, window, options, result -> {
+                            if (sse) {
+                                ((SseEmitter) emitter).send(SseEmitter.event()
+                                        .name(result instanceof AggregatedResult ? "result" : "error")
+                                        .data(result, MediaType.APPLICATION_JSON));
+                            } else {
+                                emitter.send(objectMapper.writeValueAsString(result) + "\n",
+                                        MediaType.APPLICATION_NDJSON);
+                            }
+                        });
+                if (sse) {
+                    ((SseEmitter) emitter).send(SseEmitter.event().name("summary").data(summary, MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(objectMapper.writeValueAsString(Map.of("summary", summary)) + "\n",
+                            MediaType.APPLICATION_NDJSON);
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.completeWithError(e);
+            } catch (Exception e) {
+                // Usually the client went away; stop issuing calls for this stream
+                logger.warn("Streaming aggregation aborted: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+    @GetMapping("/structured")
+    public ResponseEntity<Map<String, Object>> testStructuredConcurrency(
+            @RequestParam(defaultValue = "50") int apiCount,
+            @RequestParam(defaultValue = "200") int delayMs,
+            @RequestParam(defaultValue = "5000") long deadlineMs,
+            @RequestParam(defaultValue = "FAIL_FAST") FanOutPolicy policy,
+            @RequestParam(defaultValue = "0") int successThreshold,
+            @RequestParam(defaultValue = "WEBCLIENT_BLOCKING") HttpClientType client,
+            @RequestParam(defaultValue = "false") boolean cache,
+            @RequestParam(defaultValue = "true") boolean threadInfo,
+            @RequestParam(defaultValue = "false") boolean batch,
+            @RequestParam(required = false) String scenario,
+            @RequestParam(defaultValue = "false") boolean hedge,
+            @RequestParam(defaultValue = "0") int retries) {
+        // Calls inherit deadlineMs from the structured aggregation itself
+        return ResponseEntity.ok(orchestratorService.aggregateWithStructuredConcurrency(
+                apiCount, delayMs, deadlineMs, policy, successThreshold,
+                new FetchOptions(client, cache, threadInfo, batch, scenario, CallPolicy.of(hedge, retries, 0))));
     }
 
     @GetMapping("/compare")
@@ -0,0 +1,235 @@
+package com.virtualthreads.jobs;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A benchmark running in the background. Step results are kept as they arrive, so a client
+ * can poll for them or subscribe; a subscriber first gets every step published so far and
+ * then the live events, in order, ending with the terminal event.
+ */
+public class Job {
+
+    private final String id;
+    private final String type;
+    private final Map<String, Object> parameters;
+    private final Integer totalSteps;
+    private final Instant createdAt = Instant.now();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Map<String, Object>> steps = new ArrayList<>();
+    private final List<Consumer<JobEvent>> subscribers = new ArrayList<>();
+    private JobStatus status = JobStatus.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Map<String, Object> result;
+    private String error;
+    private JobEvent terminalEvent;
+    private Future<?> execution;
+    private boolean cancelRequested;
+
+    Job(String id, String type, Map<String, Object> parameters, Integer totalSteps) {
+        this.id = id;
+        this.type = type;
+        this.parameters = parameters;
+        this.totalSteps = totalSteps;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public JobStatus status() {
+        lock.lock();
+        try {
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Publishes the result of one completed step
+    public void step(Map<String, Object> stepResult) {
+        lock.lock();
+        try {
+            // A cancelled job's thread may still be winding down; its late steps are dropped
+            if (status.isFinished()) {
+                return;
+            }
+            steps.add(stepResult);
+            publish(new JobEvent("step", stepResult));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Publishes intermediate progress within a step; not kept
+    public void progress(Map<String, Object> update) {
+        lock.lock();
+        try {
+            if (status.isFinished()) {
+                return;
+            }
+            publish(new JobEvent("progress", update));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Listeners are called with the job's lock held and must not block; hand events off to a queue
+    public void subscribe(Consumer<JobEvent> listener) {
+        lock.lock();
+        try {
+            steps.forEach(step -> listener.accept(new JobEvent("step", step)));
+            if (terminalEvent != null) {
+                listener.accept(terminalEvent);
+            } else {
+                subscribers.add(listener);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void unsubscribe(Consumer<JobEvent> listener) {
+        lock.lock();
+        try {
+            subscribers.remove(listener);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns false if the job had already finished
+    boolean cancel() {
+        lock.lock();
+        try {
+            if (status.isFinished()) {
+                return false;
+            }
+            cancelRequested = true;
+            if (execution != null) {
+                execution.cancel(true);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void attach(Future<?> execution) {
+        lock.lock();
+        try {
+            this.execution = execution;
+            if (cancelRequested) {
+                execution.cancel(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void started() {
+        lock.lock();
+        try {
+            if (status == JobStatus.QUEUED) {
+                status = JobStatus.RUNNING;
+                startedAt = Instant.now();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void completed(Map<String, Object> result) {
+        finish(JobStatus.COMPLETED, result, null);
+    }
+
+    // A failure after cancellation was requested is the cancellation surfacing, not an error
+    void failed(Throwable cause) {
+        lock.lock();
+        try {
+            if (cancelRequested || cause instanceof InterruptedException) {
+                finish(JobStatus.CANCELLED, null, null);
+            } else {
+                finish(JobStatus.FAILED, null, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void cancelled() {
+        finish(JobStatus.CANCELLED, null, null);
+    }
+
+    private void finish(JobStatus finalStatus, Map<String, Object> finalResult, String failure) {
+        lock.lock();
+        try {
+            if (status.isFinished()) {
+                return;
+            }
+            status = finalStatus;
+            finishedAt = Instant.now();
+            result = finalResult;
+            error = failure;
+            terminalEvent = new JobEvent(finalStatus.name().toLowerCase(), summary());
+            publish(terminalEvent);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(JobEvent event) {
+        subscribers.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    public Map<String, Object> summary() {
+        lock.lock();
+        try {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", id);
+            summary.put("type", type);
+            summary.put("status", status);
+            summary.put("parameters", parameters);
+            summary.put("completedSteps", steps.size());
+            if (totalSteps != null) {
+                summary.put("totalSteps", totalSteps);
+            }
+            summary.put("createdAt", createdAt);
+            if (startedAt != null) {
+                summary.put("startedAt", startedAt);
+            }
+            if (finishedAt != null) {
+                summary.put("finishedAt", finishedAt);
+            }
+            if (error != null) {
+                summary.put("error", error);
+            }
+            return summary;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> details() {
+        lock.lock();
+        try {
+            Map<String, Object> details = summary();
+            details.put("steps", List.copyOf(steps));
+            if (result != null) {
+                details.put("result", result);
+            }
+            return details;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
\ No newline at end of file
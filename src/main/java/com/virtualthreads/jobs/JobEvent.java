@@ -0,0 +1,10 @@
+package com.virtualthreads.jobs;
+
+// What a job publishes to subscribers: "step" and "progress" while it runs, then exactly one of
+// "completed", "failed" or "cancelled"
+public record JobEvent(String name, Object data) {
+
+    public boolean isTerminal() {
+        return !"step".equals(name) && !"progress".equals(name);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.virtualthreads.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs benchmarks as background jobs so a long sweep neither holds an HTTP request open nor
+ * outlives a client or proxy timeout. Each job runs on its own thread of the given executor;
+ * at most {@code maxConcurrent} run at once and the rest wait as QUEUED, since benchmarks
+ * sharing the machine would distort each other's numbers. Cancelling interrupts the job's
+ * thread. Finished jobs beyond {@code maxRetained} are forgotten, oldest first.
+ */
+public class JobManager {
+    private static final Logger logger = LoggerFactory.getLogger(JobManager.class);
+
+    private final Executor executor;
+    private final Semaphore runSlots;
+    private final int maxRetained;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public JobManager(Executor executor, int maxConcurrent, int maxRetained) {
+        this.executor = executor;
+        this.runSlots = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxRetained = maxRetained;
+    }
+
+    public Job submit(String type, Map<String, Object> parameters, Integer totalSteps, JobTask task) {
+        Job job = new Job(UUID.randomUUID().toString(), type, parameters, totalSteps);
+        lock.lock();
+        try {
+            jobs.put(job.id(), job);
+            evictFinished();
+        } finally {
+            lock.unlock();
+        }
+
+        FutureTask<Void> execution = new FutureTask<>(() -> {
+            run(job, task);
+            return null;
+        }) {
+            // Also covers a job cancelled while still queued, whose task then never runs
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    job.cancelled();
+                }
+            }
+        };
+        job.attach(execution);
+        executor.execute(execution);
+        logger.info("Submitted {} job {} with {}", type, job.id(), parameters);
+        return job;
+    }
+
+    private void run(Job job, JobTask task) {
+        try {
+            runSlots.acquire();
+        } catch (InterruptedException e) {
+            job.cancelled();
+            return;
+        }
+        try {
+            job.started();
+            Map<String, Object> result = task.run(job);
+            // A task that noticed the interrupt may still return normally with partial results
+            if (Thread.currentThread().isInterrupted()) {
+                job.cancelled();
+            } else {
+                job.completed(result);
+            }
+        } catch (CancellationException e) {
+            job.cancelled();
+        } catch (Exception e) {
+            logger.warn("Job {} failed: {}", job.id(), e.getMessage());
+            job.failed(e);
+        } finally {
+            runSlots.release();
+            logger.info("Job {} finished with status {}", job.id(), job.status());
+        }
+    }
+
+    public Optional<Job> find(String id) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(jobs.get(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Newest first
+    public List<Job> list() {
+        lock.lock();
+        try {
+            List<Job> all = new ArrayList<>(jobs.values());
+            Collections.reverse(all);
+            return all;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(String id) {
+        return find(id).map(Job::cancel).orElse(false);
+    }
+
+    private void evictFinished() {
+        int excess = jobs.size() - maxRetained;
+        for (Iterator<Job> it = jobs.values().iterator(); excess > 0 && it.hasNext(); ) {
+            if (it.next().status().isFinished()) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+}
\ No newline at end of file
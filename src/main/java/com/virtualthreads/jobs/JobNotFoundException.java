@@ -0,0 +1,12 @@
+package com.virtualthreads.jobs;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String id) {
+        super("Unknown job: " + id);
+    }
+}
\ No newline at end of file
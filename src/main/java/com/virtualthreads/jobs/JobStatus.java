@@ -0,0 +1,14 @@
+package com.virtualthreads.jobs;
+
+public enum JobStatus {
+    // Waiting for a free slot; benchmarks run one at a time by default so they do not skew each other
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
\ No newline at end of file
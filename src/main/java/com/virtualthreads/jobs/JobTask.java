@@ -0,0 +1,10 @@
+package com.virtualthreads.jobs;
+
+import java.util.Map;
+
+// The work of a job. Publishes per-step results through the job as they become available and
+// returns the final result; cancellation arrives as an interrupt.
+@FunctionalInterface
+public interface JobTask {
+    Map<String, Object> run(Job job) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.virtualthreads.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// One entry in an aggregation: the downstream body plus where and how it was fetched
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AggregatedResult(
+        String url,
+        MockApiResponse data,
+        // Thread.toString() is comparatively expensive, so it is null unless requested
+        String threadInfo,
+        @JsonProperty("isVirtual") boolean isVirtual,
+        int delay,
+        String client) {
+}
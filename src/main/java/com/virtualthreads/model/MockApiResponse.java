@@ -0,0 +1,29 @@
+package com.virtualthreads.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Body returned by /mock-api/{id}; bound straight from the response bytes, no intermediate Map
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MockApiResponse(
+        String id,
+        String timestamp,
+        int value,
+        // Omitted when the caller asks for threadInfo=false
+        String threadInfo,
+        @JsonProperty("isVirtual") boolean isVirtual) {
+
+    // Random data for the given id, stamped with the thread that produced it
+    public static MockApiResponse generate(String id, boolean threadInfo) {
+        Thread current = Thread.currentThread();
+        return new MockApiResponse(
+                id,
+                LocalDateTime.now().toString(),
+                ThreadLocalRandom.current().nextInt(1000),
+                threadInfo ? current.toString() : null,
+                current.isVirtual());
+    }
+}
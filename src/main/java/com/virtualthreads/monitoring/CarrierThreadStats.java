@@ -0,0 +1,49 @@
+package com.virtualthreads.monitoring;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the carrier threads behind the default virtual-thread scheduler. JDK 21 emits no
+ * JFR event for the scheduler pool, so the carriers are found through the "CarrierThreads"
+ * thread group they are created in, which avoids taking stack traces of every thread.
+ */
+public record CarrierThreadStats(int parallelism, int maxPoolSize, int carriers, int busyCarriers) {
+
+    private static final String CARRIER_THREAD_GROUP = "CarrierThreads";
+
+    public static CarrierThreadStats sample() {
+        int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        int maxPoolSize = Integer.getInteger("jdk.virtualThreadScheduler.maxPoolSize", Math.max(parallelism, 256));
+
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() * 2 + 16];
+        int count = root.enumerate(threads, true);
+
+        int carriers = 0;
+        int busy = 0;
+        for (int i = 0; i < count; i++) {
+            ThreadGroup group = threads[i].getThreadGroup();
+            if (group != null && CARRIER_THREAD_GROUP.equals(group.getName())) {
+                carriers++;
+                // Idle carriers park in the pool; a runnable carrier is running a mounted virtual thread
+                if (threads[i].getState() == Thread.State.RUNNABLE) {
+                    busy++;
+                }
+            }
+        }
+        return new CarrierThreadStats(parallelism, maxPoolSize, carriers, busy);
+    }
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "parallelism", parallelism,
+                "maxPoolSize", maxPoolSize,
+                "carriers", carriers,
+                "busyCarriers", busyCarriers
+        );
+    }
+}
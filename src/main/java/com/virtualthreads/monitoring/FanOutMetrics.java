@@ -0,0 +1,70 @@
+package com.virtualthreads.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage latency of the fan-out, published as the {@code fanout.stage} timer tagged with
+ * {@code stage} and {@code thread.type}. Each call site passes nanoTime deltas; the timers are
+ * looked up once per stage and thread type and then cached, so recording costs no registry lookup.
+ * Percentile histograms and their bucket range are set by the
+ * {@code management.metrics.distribution.*.fanout.stage} properties.
+ */
+@Component
+public class FanOutMetrics {
+
+    public enum Stage {
+        // Submitted to the executor until a thread picked the call up
+        QUEUE,
+        // Waiting for the adaptive limit and a per-host connection permit
+        ADMISSION,
+        // The HTTP exchange as the caller sees it: connect, request, server time and reading the body
+        CLIENT,
+        // Binding the body to MockApiResponse (JDK client; the WebClient clients decode inside Netty)
+        DESERIALIZE,
+        // Time the mock API spent producing a response, measured on the server side
+        SERVER,
+        // Joining the calls and building the aggregated response
+        AGGREGATE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public FanOutMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(Stage stage, String threadType, long nanos) {
+        timer(stage, threadType).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Records the time since startNanos, a System.nanoTime() reading
+    public void recordSince(Stage stage, String threadType, long startNanos) {
+        record(stage, threadType, System.nanoTime() - startNanos);
+    }
+
+    Timer timer(Stage stage, String threadType) {
+        return timers.computeIfAbsent(new TimerKey(stage, threadType), key -> Timer.builder("fanout.stage")
+                .description("Time spent in one stage of a fan-out call")
+                .tag("stage", key.stage().tag)
+                .tag("thread.type", key.threadType())
+                .register(meterRegistry));
+    }
+
+    // For stages recorded where the caller's thread type is not known: the kind of thread doing the work
+    public static String currentThreadType() {
+        return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+    }
+
+    private record TimerKey(Stage stage, String threadType) {
+    }
+}
\ No newline at end of file
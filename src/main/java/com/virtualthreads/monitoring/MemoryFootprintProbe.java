@@ -0,0 +1,240 @@
+package com.virtualthreads.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what a blocked request costs in memory on each thread model. Tasks that recurse
+ * {@code stackDepth} frames and then park, like a request waiting on a downstream call, are
+ * started in increasing numbers; at each level the heap is collected and memory is sampled, and
+ * the growth over the baseline is divided by the number of tasks. A parked virtual thread keeps its
+ * frames on the heap, a platform thread in its native stack, so both heap and native (NMT) growth
+ * are counted. The ramp stops at the first level the JVM cannot hold: a thread that cannot be
+ * started, tasks that do not start in time, or a heap that would not fit the next level.
+ */
+@Component
+public class MemoryFootprintProbe {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryFootprintProbe.class);
+
+    // Stop before the heap is this full, rather than let the application hit OutOfMemoryError
+    private static final double MAX_HEAP_FRACTION = 0.9;
+
+    private final int maxPlatformThreads;
+
+    public MemoryFootprintProbe(@Value("${app.footprint.max-platform-threads:10000}") int maxPlatformThreads) {
+        this.maxPlatformThreads = maxPlatformThreads;
+    }
+
+    public record Probe(String threadType, List<Integer> levels, int stackDepth, Duration startTimeout,
+                        Long podMemoryBytes) {
+
+        public Probe {
+            if (!"platform".equals(threadType) && !"virtual".equals(threadType)) {
+                throw new IllegalArgumentException("threadType must be platform or virtual");
+            }
+            if (levels == null || levels.isEmpty() || levels.stream().anyMatch(level -> level <= 0)) {
+                throw new IllegalArgumentException("levels must be positive task counts");
+            }
+            levels = levels.stream().sorted().distinct().toList();
+            if (stackDepth < 0) {
+                throw new IllegalArgumentException("stackDepth must not be negative");
+            }
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("threadType", threadType);
+            map.put("levels", levels);
+            map.put("stackDepth", stackDepth);
+            map.put("startTimeoutMs", startTimeout.toMillis());
+            map.put("podMemoryBytes", podMemoryBytes);
+            return map;
+        }
+    }
+
+    // Tasks are counted in when they are parked and out when they have returned
+    private static final class BlockedTasks {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Semaphore parked = new Semaphore(0);
+        final Semaphore finished = new Semaphore(0);
+        int started;
+
+        void hold(int depth) {
+            if (depth > 0) {
+                hold(depth - 1);
+                return;
+            }
+            parked.release();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public Map<String, Object> run(Probe probe) {
+        Thread.Builder builder = "virtual".equals(probe.threadType())
+                ? Thread.ofVirtual().name("footprint-virtual-", 0)
+                : Thread.ofPlatform().name("footprint-platform-", 0).daemon(true);
+        BlockedTasks tasks = new BlockedTasks();
+        List<Map<String, Object>> results = new ArrayList<>();
+        String stoppedBy = null;
+        long heapPerTask = 0;
+
+        MemorySnapshot baseline = settle();
+        logger.info("Memory footprint probe for {} threads at levels {}; baseline heap {} MB", probe.threadType(),
+                probe.levels(), baseline.heapUsed() / (1024 * 1024));
+        try {
+            for (int level : probe.levels()) {
+                if ("platform".equals(probe.threadType()) && level > maxPlatformThreads) {
+                    stoppedBy = "platform thread cap (app.footprint.max-platform-threads=" + maxPlatformThreads + ")";
+                    break;
+                }
+                // Stop if the level would not fit at the heap cost per task measured so far
+                long projectedHeap = baseline.heapUsed() + heapPerTask * level;
+                if (heapPerTask > 0 && projectedHeap > baseline.heapMax() * MAX_HEAP_FRACTION) {
+                    stoppedBy = "heap limit: " + level + " tasks would need about "
+                            + projectedHeap / (1024 * 1024) + " MB of heap";
+                    break;
+                }
+
+                long start = System.nanoTime();
+                String failure = startUpTo(level, builder, tasks, probe);
+                long startNanos = System.nanoTime() - start;
+                if (failure != null && tasks.started == 0) {
+                    stoppedBy = failure;
+                    break;
+                }
+
+                MemorySnapshot sample = settle();
+                Map<String, Object> result = levelResult(tasks.started, startNanos, baseline, sample,
+                        probe.podMemoryBytes());
+                results.add(result);
+                heapPerTask = (long) result.get("heapBytesPerTask");
+                logger.info("{} {} tasks: {} heap bytes/task, {} native bytes/task", tasks.started,
+                        probe.threadType(), heapPerTask, result.get("nativeBytesPerTask"));
+                if (failure != null) {
+                    stoppedBy = failure;
+                    break;
+                }
+                if (sample.heapUsed() > sample.heapMax() * MAX_HEAP_FRACTION) {
+                    stoppedBy = "heap limit: " + sample.heapUsed() / (1024 * 1024) + " MB of heap in use";
+                    break;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Memory footprint probe cancelled after " + tasks.started
+                            + " tasks");
+                }
+            }
+        } finally {
+            releaseAll(tasks);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("probe", probe.toMap());
+        report.put("baseline", baseline.toMap());
+        report.put("results", results);
+        // The highest level held, and why the ramp stopped there; null if every level was held
+        report.put("saturation", stoppedBy == null ? null : Map.of(
+                "tasks", results.isEmpty() ? 0 : results.get(results.size() - 1).get("tasks"),
+                "reason", stoppedBy));
+        return report;
+    }
+
+    // Starts tasks until `level` are parked; returns why that failed, or null
+    private String startUpTo(int level, Thread.Builder builder, BlockedTasks tasks, Probe probe) {
+        int target = level - tasks.started;
+        int launched = 0;
+        try {
+            for (; launched < target; launched++) {
+                builder.start(() -> {
+                    try {
+                        tasks.hold(probe.stackDepth());
+                    } finally {
+                        tasks.finished.release();
+                    }
+                });
+            }
+        } catch (OutOfMemoryError e) {
+            // Typically "unable to create native thread": the OS or the container ran out of threads or memory
+            logger.warn("Could not start task {}: {}", tasks.started + launched + 1, e.getMessage());
+            awaitParked(tasks, launched, probe.startTimeout());
+            tasks.started += launched;
+            return "thread start failed after " + tasks.started + " tasks: " + e.getMessage();
+        }
+        boolean parked = awaitParked(tasks, launched, probe.startTimeout());
+        tasks.started += launched;
+        return parked ? null : "tasks did not start within " + probe.startTimeout().toMillis() + "ms";
+    }
+
+    private static boolean awaitParked(BlockedTasks tasks, int count, Duration timeout) {
+        try {
+            return tasks.parked.tryAcquire(count, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void releaseAll(BlockedTasks tasks) {
+        tasks.release.countDown();
+        try {
+            if (!tasks.finished.tryAcquire(tasks.started, 60, TimeUnit.SECONDS)) {
+                logger.warn("Not all footprint tasks finished within 60s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Collects garbage first, so heap use is what the parked tasks keep reachable
+    private static MemorySnapshot settle() {
+        System.gc();
+        return MemorySnapshot.take();
+    }
+
+    private static Map<String, Object> levelResult(int tasks, long startNanos, MemorySnapshot baseline,
+                                                   MemorySnapshot sample, Long podMemoryBytes) {
+        long heapBytes = sample.heapUsed() - baseline.heapUsed();
+        long nativeBytes = sample.hasNativeMemory()
+                ? sample.nativeOffHeapCommitted() - baseline.nativeOffHeapCommitted()
+                : -1;
+        long rssBytes = sample.rss() >= 0 && baseline.rss() >= 0 ? sample.rss() - baseline.rss() : -1;
+        long bytesPerTask = (heapBytes + Math.max(0, nativeBytes)) / tasks;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tasks", tasks);
+        result.put("startMs", startNanos / 1_000_000.0);
+        result.put("heapBytesPerTask", heapBytes / tasks);
+        result.put("nativeBytesPerTask", nativeBytes < 0 ? -1 : nativeBytes / tasks);
+        result.put("threadStackBytesPerTask", sample.hasNativeMemory()
+                ? (sample.nativeThreadCommitted() - baseline.nativeThreadCommitted()) / tasks
+                : -1);
+        result.put("rssBytesPerTask", rssBytes < 0 ? -1 : rssBytes / tasks);
+        // Heap plus off-heap native growth; without NMT only the heap is counted
+        result.put("bytesPerTask", bytesPerTask);
+        result.put("gcCount", sample.gcCount() - baseline.gcCount());
+        result.put("gcTimeMs", sample.gcTimeMs() - baseline.gcTimeMs());
+        if (podMemoryBytes != null && bytesPerTask > 0) {
+            // What is left of the pod after the idle application, divided by the cost of one blocked request
+            long idleBytes = baseline.rss() >= 0 ? baseline.rss()
+                    : baseline.heapUsed() + Math.max(0, baseline.nativeOffHeapCommitted());
+            result.put("estimatedTasksPerPod", Math.max(0, podMemoryBytes - idleBytes) / bytesPerTask);
+        }
+        result.put("memory", sample.toMap());
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.virtualthreads.monitoring;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Memory held by the JVM at one point in time. Native memory comes from Native Memory Tracking
+ * through the DiagnosticCommand MBean, so it is only available when the JVM was started with
+ * {@code -XX:NativeMemoryTracking=summary}; RSS is read from /proc and only available on Linux.
+ * Unavailable figures are -1.
+ */
+public record MemorySnapshot(
+        long heapUsed,
+        long heapCommitted,
+        long heapMax,
+        long nonHeapUsed,
+        long nonHeapCommitted,
+        // NMT committed bytes: everything, the Java heap, and thread stacks plus thread bookkeeping
+        long nativeCommitted,
+        long nativeHeapCommitted,
+        long nativeThreadCommitted,
+        long rss,
+        // Platform threads only; virtual threads are not counted by the ThreadMXBean
+        int platformThreads,
+        long gcCount,
+        long gcTimeMs) {
+
+    private static final Pattern NMT_TOTAL = Pattern.compile("Total: reserved=\\d+KB, committed=(\\d+)KB");
+    private static final Pattern NMT_CATEGORY =
+            Pattern.compile("^-\\s+(.+?) \\(reserved=\\d+KB, committed=(\\d+)KB\\)", Pattern.MULTILINE);
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    public static MemorySnapshot take() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        long gcCount = 0;
+        long gcTimeMs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTimeMs += Math.max(0, gc.getCollectionTime());
+        }
+        Map<String, Long> nmt = nativeMemoryCommitted();
+        return new MemorySnapshot(heap.getUsed(), heap.getCommitted(), heap.getMax(),
+                nonHeap.getUsed(), nonHeap.getCommitted(),
+                nmt.getOrDefault("Total", -1L), nmt.getOrDefault("Java Heap", -1L), nmt.getOrDefault("Thread", -1L),
+                readRss(), ManagementFactory.getThreadMXBean().getThreadCount(), gcCount, gcTimeMs);
+    }
+
+    public boolean hasNativeMemory() {
+        return nativeCommitted >= 0;
+    }
+
+    // Committed native memory outside the Java heap: thread stacks, metaspace, code cache, GC structures...
+    public long nativeOffHeapCommitted() {
+        return hasNativeMemory() ? nativeCommitted - Math.max(0, nativeHeapCommitted) : -1;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("heapUsedBytes", heapUsed);
+        map.put("heapCommittedBytes", heapCommitted);
+        map.put("heapMaxBytes", heapMax);
+        map.put("nonHeapUsedBytes", nonHeapUsed);
+        map.put("nonHeapCommittedBytes", nonHeapCommitted);
+        map.put("nativeCommittedBytes", nativeCommitted);
+        map.put("nativeOffHeapCommittedBytes", nativeOffHeapCommitted());
+        map.put("nativeThreadCommittedBytes", nativeThreadCommitted);
+        map.put("rssBytes", rss);
+        map.put("platformThreads", platformThreads);
+        map.put("gcCount", gcCount);
+        map.put("gcTimeMs", gcTimeMs);
+        return map;
+    }
+
+    // Committed bytes per NMT category plus "Total"; empty when NMT is off
+    static Map<String, Long> nativeMemoryCommitted() {
+        String summary;
+        try {
+            summary = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmNativeMemory",
+                    new Object[]{new String[]{"summary", "scale=KB"}}, new String[]{String[].class.getName()});
+        } catch (JMException e) {
+            return Map.of();
+        }
+        return parseNativeMemory(summary);
+    }
+
+    static Map<String, Long> parseNativeMemory(String summary) {
+        Map<String, Long> committed = new LinkedHashMap<>();
+        Matcher total = NMT_TOTAL.matcher(summary);
+        if (!total.find()) {
+            // "Native memory tracking is not enabled"
+            return committed;
+        }
+        committed.put("Total", Long.parseLong(total.group(1)) * 1024);
+        Matcher category = NMT_CATEGORY.matcher(summary);
+        while (category.find()) {
+            committed.put(category.group(1).trim(), Long.parseLong(category.group(2)) * 1024);
+        }
+        return committed;
+    }
+
+    private static long readRss() {
+        try {
+            Matcher matcher = VM_RSS.matcher(Files.readString(Path.of("/proc/self/status")));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) * 1024 : -1;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
\ No newline at end of file
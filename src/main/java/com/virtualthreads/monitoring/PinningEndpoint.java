@@ -0,0 +1,30 @@
+package com.virtualthreads.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// /actuator/pinning: pinning events by call site and carrier-thread stats; DELETE resets the counts
+@Component
+@Endpoint(id = "pinning")
+public class PinningEndpoint {
+
+    private final PinningMonitor pinningMonitor;
+
+    public PinningEndpoint(PinningMonitor pinningMonitor) {
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pinning() {
+        return pinningMonitor.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        pinningMonitor.reset();
+    }
+}
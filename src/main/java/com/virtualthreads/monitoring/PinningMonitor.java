@@ -0,0 +1,201 @@
+package com.virtualthreads.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams JFR virtual-thread events in-process and aggregates pinning by call site, replacing
+ * -Djdk.tracePinnedThreads, which only prints stack traces to stdout. Pinning durations go to a
+ * Micrometer timer; per-site detail is served by {@link PinningEndpoint}.
+ */
+@Component
+public class PinningMonitor implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String OTHER_SITE = "(other)";
+    private static final int SITE_FRAMES = 5;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int maxSites;
+
+    private final Timer pinnedTimer;
+    private final Counter submitFailedCounter;
+    private final ConcurrentMap<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final LongAdder submitFailed = new LongAdder();
+    private final AtomicReference<CarrierThreadStats> carrierStats = new AtomicReference<>(CarrierThreadStats.sample());
+
+    private volatile RecordingStream stream;
+
+    public PinningMonitor(MeterRegistry meterRegistry,
+                          @Value("${app.pinning-monitor.enabled:true}") boolean enabled,
+                          @Value("${app.pinning-monitor.threshold:20ms}") Duration threshold,
+                          @Value("${app.pinning-monitor.max-sites:200}") int maxSites) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxSites = maxSites;
+        this.pinnedTimer = Timer.builder("jvm.virtual.thread.pinned")
+                .description("Time virtual threads spent pinned to their carrier while blocking")
+                .register(meterRegistry);
+        this.submitFailedCounter = Counter.builder("jvm.virtual.thread.submit.failed")
+                .description("Virtual thread start or unpark tasks the scheduler rejected")
+                .register(meterRegistry);
+        Gauge.builder("jvm.virtual.thread.carriers", carrierStats, s -> s.get().carriers())
+                .description("Carrier threads in the virtual-thread scheduler pool")
+                .register(meterRegistry);
+        Gauge.builder("jvm.virtual.thread.carriers.busy", carrierStats, s -> s.get().busyCarriers())
+                .description("Carrier threads currently running a virtual thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+        // Events are flushed about once a second; refresh the carrier snapshot at the same pace
+        recordingStream.onFlush(() -> carrierStats.set(CarrierThreadStats.sample()));
+        recordingStream.startAsync();
+        stream = recordingStream;
+        logger.info("Virtual-thread pinning monitor started with threshold {}ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        stream = null;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public Map<String, Object> snapshot() {
+        long events = 0;
+        long totalNanos = 0;
+        List<Map<String, Object>> bySite = new ArrayList<>();
+        for (Map.Entry<String, SiteStats> entry : sites.entrySet()) {
+            SiteStats stats = entry.getValue();
+            events += stats.count.sum();
+            totalNanos += stats.totalNanos.sum();
+            bySite.add(stats.toMap(entry.getKey()));
+        }
+        bySite.sort(Comparator.comparingDouble((Map<String, Object> m) -> (double) m.get("totalMs")).reversed());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("running", isRunning());
+        snapshot.put("thresholdMs", threshold.toMillis());
+        snapshot.put("pinnedEvents", events);
+        snapshot.put("pinnedTimeMs", totalNanos / 1_000_000.0);
+        snapshot.put("submitFailed", submitFailed.sum());
+        snapshot.put("carrierThreads", CarrierThreadStats.sample().toMap());
+        snapshot.put("sites", bySite);
+        return snapshot;
+    }
+
+    public void reset() {
+        sites.clear();
+        submitFailed.reset();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        pinnedTimer.record(duration);
+
+        String site = siteOf(event.getStackTrace());
+        SiteStats stats = sites.get(site);
+        if (stats == null) {
+            // Bound the number of distinct sites so a pathological workload cannot grow this forever
+            stats = sites.size() < maxSites
+                    ? sites.computeIfAbsent(site, s -> new SiteStats())
+                    : sites.computeIfAbsent(OTHER_SITE, s -> new SiteStats());
+        }
+        stats.record(duration.toNanos());
+    }
+
+    private void onSubmitFailed(RecordedEvent event) {
+        submitFailed.increment();
+        submitFailedCounter.increment();
+        logger.warn("Virtual thread submit failed: {}", siteOf(event.getStackTrace()));
+    }
+
+    // The top application frames, skipping the JDK's own parking machinery
+    private static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        List<String> frames = new ArrayList<>(SITE_FRAMES);
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (frames.isEmpty() && (type.startsWith("java.lang.VirtualThread")
+                    || type.startsWith("jdk.internal.")
+                    || type.equals("java.util.concurrent.locks.LockSupport"))) {
+                continue;
+            }
+            frames.add(type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+            if (frames.size() == SITE_FRAMES) {
+                break;
+            }
+        }
+        return String.join(" <- ", frames);
+    }
+
+    private static final class SiteStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> toMap(String site) {
+            long events = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("site", site);
+            map.put("count", events);
+            map.put("totalMs", total / 1_000_000.0);
+            map.put("avgMs", events == 0 ? 0.0 : total / 1_000_000.0 / events);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.virtualthreads.resilience;
+
+// Per-call hedging, retries and the deadline inherited from the enclosing aggregation
+public record CallPolicy(
+        boolean hedge,
+        int maxRetries,
+        // Absolute System.nanoTime() deadline; 0 means the call is not time-bounded
+        long deadlineNanos) {
+
+    public static final CallPolicy NONE = new CallPolicy(false, 0, 0);
+
+    // Deadline measured from now, i.e. from when the aggregation request arrived
+    public static CallPolicy of(boolean hedge, int maxRetries, long deadlineMs) {
+        return new CallPolicy(hedge, Math.max(0, maxRetries),
+                deadlineMs > 0 ? System.nanoTime() + deadlineMs * 1_000_000 : 0);
+    }
+
+    // Keeps the earlier of the two deadlines
+    public CallPolicy withDeadline(long deadlineNanos) {
+        if (this.deadlineNanos != 0 && this.deadlineNanos - deadlineNanos < 0) {
+            return this;
+        }
+        return new CallPolicy(hedge, maxRetries, deadlineNanos);
+    }
+
+    public boolean isActive() {
+        return hedge || maxRetries > 0 || deadlineNanos != 0;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos == 0 ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+}
@@ -0,0 +1,13 @@
+package com.virtualthreads.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The aggregation's deadline passed before any attempt of the call succeeded
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class CallTimeoutException extends RuntimeException {
+
+    public CallTimeoutException(String message, Throwable lastFailure) {
+        super(message, lastFailure);
+    }
+}
@@ -0,0 +1,71 @@
+package com.virtualthreads.resilience;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Recent latency percentile for one kind of call. Samples go into a lock-free HdrHistogram
+ * Recorder; the percentile is republished at most once per window, from at least
+ * {@code minSamples} samples, and is -1 until the first window has enough of them.
+ */
+class LatencyTracker {
+
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final double percentile;
+    private final long windowNanos;
+    private final long minSamples;
+    private final LongSupplier nanoClock;
+
+    private final Recorder recorder = new Recorder(2);
+    private final ReentrantLock rollLock = new ReentrantLock();
+    private final Histogram accumulated = new Histogram(2);
+    private Histogram interval;
+    private long lastPublished;
+    private volatile long lastChecked;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile, long windowNanos, long minSamples, LongSupplier nanoClock) {
+        this.percentile = percentile;
+        this.windowNanos = windowNanos;
+        this.minSamples = minSamples;
+        this.nanoClock = nanoClock;
+        this.lastPublished = nanoClock.getAsLong();
+        this.lastChecked = lastPublished;
+    }
+
+    void record(long nanos) {
+        recorder.recordValue(Math.max(1, nanos));
+        maybeRoll();
+    }
+
+    long percentileNanos() {
+        maybeRoll();
+        return percentileNanos;
+    }
+
+    private void maybeRoll() {
+        long now = nanoClock.getAsLong();
+        if (now - lastChecked < CHECK_INTERVAL_NANOS || !rollLock.tryLock()) {
+            return;
+        }
+        try {
+            lastChecked = now;
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.add(interval);
+            // Publish as soon as there is a first estimate, then once per window
+            boolean due = percentileNanos < 0 || now - lastPublished >= windowNanos;
+            if (due && accumulated.getTotalCount() >= minSamples) {
+                percentileNanos = accumulated.getValueAtPercentile(percentile);
+                accumulated.reset();
+                lastPublished = now;
+            }
+        } finally {
+            rollLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.virtualthreads.resilience;
+
+import com.virtualthreads.concurrent.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs one logical call as one or more attempts on an executor, by default virtual threads:
+ * <ul>
+ *   <li>hedging: if the first attempt has not finished after the recent p95 latency for this
+ *       kind of call, a second one is started and whichever succeeds first wins;</li>
+ *   <li>retries with full-jitter exponential backoff on failure;</li>
+ *   <li>a deadline from the enclosing aggregation, after which every attempt is cancelled.</li>
+ * </ul>
+ * Hedges and retries both draw from one {@link RetryBudget}. Losing or timed-out attempts are
+ * cancelled with an interrupt, which a parked virtual thread handles immediately.
+ */
+public class ResilientCaller {
+
+    // Latency keys include the delay and scenario a request asks for, so trackers are capped
+    static final int MAX_TRACKERS = 1024;
+
+    private final Executor attemptExecutor;
+    private final RetryBudget retryBudget;
+    private final double hedgePercentile;
+    private final long minHedgeDelayNanos;
+    private final long latencyWindowNanos;
+    private final long minSamples;
+    private final long backoffBaseNanos;
+    private final long backoffMaxNanos;
+
+    // Least recently used first; an evicted key only loses its latency history and starts over
+    private final ReentrantLock trackersLock = new ReentrantLock();
+    private final LinkedHashMap<String, LatencyTracker> trackers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LatencyTracker> eldest) {
+            return size() > MAX_TRACKERS;
+        }
+    };
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter retries;
+    private final Counter budgetExhausted;
+    private final Counter timeouts;
+
+    public ResilientCaller(Executor attemptExecutor, RetryBudget retryBudget, double hedgePercentile,
+                           Duration minHedgeDelay, Duration latencyWindow, long minSamples,
+                           Duration backoffBase, Duration backoffMax, MeterRegistry meterRegistry) {
+        this.attemptExecutor = attemptExecutor;
+        this.retryBudget = retryBudget;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.latencyWindowNanos = latencyWindow.toNanos();
+        this.minSamples = minSamples;
+        this.backoffBaseNanos = backoffBase.toNanos();
+        this.backoffMaxNanos = backoffMax.toNanos();
+
+        this.hedgesSent = Counter.builder("fanout.resilience.hedges").tag("result", "sent").register(meterRegistry);
+        this.hedgesWon = Counter.builder("fanout.resilience.hedges").tag("result", "won").register(meterRegistry);
+        this.retries = Counter.builder("fanout.resilience.retries").register(meterRegistry);
+        this.budgetExhausted = Counter.builder("fanout.resilience.budget.exhausted")
+                .description("Hedges or retries skipped because the retry budget was spent")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("fanout.resilience.timeouts").register(meterRegistry);
+    }
+
+    // latencyKey groups calls that should share a hedge delay, e.g. the same delay and scenario
+    public <T> T call(String latencyKey, CallPolicy policy, Callable<T> attempt) {
+        retryBudget.recordRequest();
+        LatencyTracker tracker = tracker(latencyKey);
+
+        for (int retry = 0; ; retry++) {
+            if (policy.remainingNanos() <= 0) {
+                timeouts.increment();
+                throw new CallTimeoutException("Deadline passed before attempt " + (retry + 1), null);
+            }
+            try {
+                return attempt(policy, tracker, attempt);
+            } catch (CallTimeoutException | ConcurrencyLimitExceededException e) {
+                // Out of time, or shed locally where another attempt would only add load
+                throw e;
+            } catch (RuntimeException e) {
+                if (retry >= policy.maxRetries() || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                long backoff = ThreadLocalRandom.current().nextLong(
+                        Math.min(backoffMaxNanos, backoffBaseNanos << Math.min(retry, 20)) + 1);
+                if (backoff >= policy.remainingNanos()) {
+                    throw e;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private LatencyTracker tracker(String latencyKey) {
+        trackersLock.lock();
+        try {
+            return trackers.computeIfAbsent(latencyKey,
+                    k -> new LatencyTracker(hedgePercentile, latencyWindowNanos, minSamples, System::nanoTime));
+        } finally {
+            trackersLock.unlock();
+        }
+    }
+
+    int trackerCount() {
+        trackersLock.lock();
+        try {
+            return trackers.size();
+        } finally {
+            trackersLock.unlock();
+        }
+    }
+
+    // One try, possibly hedged; returns the first successful attempt or throws the last failure
+    private <T> T attempt(CallPolicy policy, LatencyTracker tracker, Callable<T> attempt) {
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(attemptExecutor);
+        List<Future<T>> started = new ArrayList<>(2);
+        started.add(completion.submit(timed(tracker, attempt)));
+        try {
+            Future<T> done = null;
+            long hedgeDelay = policy.hedge() ? tracker.percentileNanos() : -1;
+            if (hedgeDelay >= 0) {
+                hedgeDelay = Math.max(hedgeDelay, minHedgeDelayNanos);
+                if (hedgeDelay < policy.remainingNanos()) {
+                    done = completion.poll(hedgeDelay, TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        if (retryBudget.tryWithdraw()) {
+                            hedgesSent.increment();
+                            started.add(completion.submit(timed(tracker, attempt)));
+                        } else {
+                            budgetExhausted.increment();
+                        }
+                    }
+                }
+            }
+
+            RuntimeException failure = null;
+            for (int outstanding = started.size(); outstanding > 0; outstanding--) {
+                if (done == null) {
+                    done = completion.poll(policy.remainingNanos(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        timeouts.increment();
+                        throw new CallTimeoutException("Deadline passed with " + outstanding
+                                + " attempt(s) outstanding", failure);
+                    }
+                }
+                try {
+                    T result = done.get();
+                    if (done != started.get(0)) {
+                        hedgesWon.increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException re
+                            ? re
+                            : new IllegalStateException(e.getCause().getMessage(), e.getCause());
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a call attempt", e);
+        } finally {
+            // Interrupts whichever attempt lost or is still running
+            for (Future<T> future : started) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static <T> Callable<T> timed(LatencyTracker tracker, Callable<T> attempt) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = attempt.call();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+}
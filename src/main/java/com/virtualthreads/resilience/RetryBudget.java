@@ -0,0 +1,81 @@
+package com.virtualthreads.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps extra attempts (retries and hedges) at a fraction of the original calls, so a
+ * struggling downstream sees at most {@code 1 + ratio} times the normal load instead of a
+ * retry storm. Counts cover the current and the previous second, plus a small fixed
+ * allowance so low-traffic periods can still retry.
+ */
+public class RetryBudget {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratio;
+    private final int minPerSecond;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long windowStart;
+    private long requests;
+    private long withdrawals;
+    private long previousRequests;
+    private long previousWithdrawals;
+
+    public RetryBudget(double ratio, int minPerSecond) {
+        this(ratio, minPerSecond, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int minPerSecond, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    public void recordRequest() {
+        lock.lock();
+        try {
+            roll();
+            requests++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean tryWithdraw() {
+        lock.lock();
+        try {
+            roll();
+            double allowed = 2 * minPerSecond + ratio * (requests + previousRequests);
+            if (withdrawals + previousWithdrawals + 1 > allowed) {
+                return false;
+            }
+            withdrawals++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+        if (elapsed < 2 * WINDOW_NANOS) {
+            previousRequests = requests;
+            previousWithdrawals = withdrawals;
+        } else {
+            previousRequests = 0;
+            previousWithdrawals = 0;
+        }
+        requests = 0;
+        withdrawals = 0;
+        windowStart = now - elapsed % WINDOW_NANOS;
+    }
+}
@@ -0,0 +1,65 @@
+package com.virtualthreads.results;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Two-sided test of whether two latency distributions differ at a quantile, such as p99. Both
+ * histograms are merged to find the pooled quantile; under the null hypothesis each side has the
+ * same share of observations at or above it, so the shares are compared with a two-proportion z-test.
+ * Unlike a test on the means, a shift confined to the tail is detected, and a shift confined to the
+ * body does not count. Returns null when a side has too few observations to place the quantile.
+ */
+public record QuantileTest(double percentile, double thresholdMs, double baselineExceedance,
+                           double candidateExceedance, double z, double pValue) {
+
+    public static QuantileTest of(Histogram baseline, Histogram candidate, double percentile) {
+        long nb = baseline.getTotalCount();
+        long nc = candidate.getTotalCount();
+        // At least one expected observation above the quantile on each side
+        double minCount = 100 / (100 - percentile);
+        if (nb < minCount || nc < minCount) {
+            return null;
+        }
+        Histogram pooled = baseline.copy();
+        pooled.add(candidate);
+        long threshold = pooled.getValueAtPercentile(percentile);
+
+        double pb = (double) exceeding(baseline, threshold) / nb;
+        double pc = (double) exceeding(candidate, threshold) / nc;
+        double p = (pb * nb + pc * nc) / (nb + nc);
+        double standardError = Math.sqrt(p * (1 - p) * (1.0 / nb + 1.0 / nc));
+        double difference = pc - pb;
+        // As in WelchTest: no spread means the shares are either equal or certainly different
+        double z = standardError == 0
+                ? (difference == 0 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, difference))
+                : difference / standardError;
+        return new QuantileTest(percentile, threshold / 1_000_000.0, pb, pc, z, twoSidedPValue(z));
+    }
+
+    public boolean isSignificant(double alpha) {
+        return pValue < alpha;
+    }
+
+    // Observations in the histogram bucket that holds the threshold or above it. Counting the bucket
+    // itself matters when the quantile falls on a latency many requests share, like a timeout
+    private static long exceeding(Histogram histogram, long threshold) {
+        long max = histogram.getMaxValue();
+        return max < histogram.lowestEquivalentValue(threshold) ? 0 : histogram.getCountBetweenValues(threshold, max);
+    }
+
+    // P(|Z| > |z|) for a standard normal
+    static double twoSidedPValue(double z) {
+        if (Double.isInfinite(z)) {
+            return 0;
+        }
+        return erfc(Math.abs(z) / Math.sqrt(2));
+    }
+
+    // Chebyshev approximation with fractional error below 1.2e-7
+    private static double erfc(double x) {
+        double t = 1 / (1 + 0.5 * x);
+        return t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+    }
+}
\ No newline at end of file
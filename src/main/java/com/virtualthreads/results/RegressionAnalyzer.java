@@ -0,0 +1,120 @@
+package com.virtualthreads.results;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares a candidate run against one or more baseline runs, series by series. Baseline runs
+ * are pooled: their latency histograms are added together and their throughput samples
+ * concatenated. A throughput drop or p99 increase is flagged as a regression when it exceeds
+ * the tolerance and the difference is statistically significant: Welch's t-test on the
+ * throughput samples, and a quantile test at p99 on the latency histograms, so the latency test is
+ * on the statistic that is reported rather than on the mean. When a side has too few
+ * samples for a test, the tolerance alone decides and the result is marked untested.
+ */
+public final class RegressionAnalyzer {
+
+    private RegressionAnalyzer() {
+    }
+
+    public record Criteria(double alpha, double maxThroughputDrop, double maxP99Increase) {
+    }
+
+    public static Map<String, Object> compare(List<RunRecord> baseline, RunRecord candidate, Criteria criteria) {
+        Map<String, Object> seriesReports = new LinkedHashMap<>();
+        List<String> regressions = new ArrayList<>();
+
+        candidate.series().forEach((name, candidateSeries) -> {
+            List<SeriesResult> baselineSeries = baseline.stream()
+                    .map(run -> run.series().get(name))
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (baselineSeries.isEmpty()) {
+                return;
+            }
+            Map<String, Object> report = compareSeries(baselineSeries, candidateSeries, criteria);
+            @SuppressWarnings("unchecked")
+            List<String> flags = (List<String>) report.get("regressions");
+            flags.forEach(flag -> regressions.add(name + ": " + flag));
+            seriesReports.put(name, report);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("kind", candidate.kind());
+        result.put("candidate", Map.of("id", candidate.id(), "timestamp", candidate.timestamp()));
+        result.put("baseline", baseline.stream()
+                .map(run -> Map.of("id", run.id(), "timestamp", run.timestamp()))
+                .toList());
+        result.put("parametersMatch", baseline.stream()
+                .allMatch(run -> run.parameters().equals(candidate.parameters())));
+        // Against the most recent baseline run, which is usually the build being compared with
+        result.put("environmentChanges", baseline.get(0).environment().differencesFrom(candidate.environment()));
+        result.put("criteria", criteria);
+        result.put("series", seriesReports);
+        result.put("regressions", regressions);
+        result.put("regression", !regressions.isEmpty());
+        return result;
+    }
+
+    private static Map<String, Object> compareSeries(List<SeriesResult> baseline, SeriesResult candidate,
+                                                     Criteria criteria) {
+        Histogram baselineLatency = new Histogram(3);
+        List<Double> baselineThroughput = new ArrayList<>();
+        for (SeriesResult series : baseline) {
+            baselineLatency.add(series.decodeLatency());
+            baselineThroughput.addAll(series.throughputSamples());
+        }
+        Histogram candidateLatency = candidate.decodeLatency();
+
+        double baselineRunThroughput = baseline.stream().mapToDouble(SeriesResult::throughput).average().orElse(0);
+        double throughputChange = relativeChange(baselineRunThroughput, candidate.throughput());
+        WelchTest throughputTest = WelchTest.of(SampleStats.of(baselineThroughput),
+                SampleStats.of(candidate.throughputSamples()));
+
+        double baselineP99 = baselineLatency.getValueAtPercentile(99) / 1_000_000.0;
+        double candidateP99 = candidateLatency.getValueAtPercentile(99) / 1_000_000.0;
+        double p99Change = relativeChange(baselineP99, candidateP99);
+        QuantileTest latencyTest = QuantileTest.of(baselineLatency, candidateLatency, 99);
+
+        List<String> regressions = new ArrayList<>();
+        if (throughputChange < -criteria.maxThroughputDrop()
+                && (throughputTest == null || throughputTest.isSignificant(criteria.alpha()))) {
+            regressions.add(String.format("throughput %.1f%%%s", throughputChange * 100,
+                    throughputTest == null ? " (untested)" : ""));
+        }
+        if (p99Change > criteria.maxP99Increase()
+                && (latencyTest == null || latencyTest.isSignificant(criteria.alpha()))) {
+            regressions.add(String.format("p99 +%.1f%%%s", p99Change * 100,
+                    latencyTest == null ? " (untested)" : ""));
+        }
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("baseline", baselineRunThroughput);
+        throughput.put("candidate", candidate.throughput());
+        throughput.put("changePercent", throughputChange * 100);
+        throughput.put("test", throughputTest);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("baselineMeanMs", baselineLatency.getMean() / 1_000_000.0);
+        latency.put("candidateMeanMs", candidateLatency.getMean() / 1_000_000.0);
+        latency.put("baselineP99Ms", baselineP99);
+        latency.put("candidateP99Ms", candidateP99);
+        latency.put("p99ChangePercent", p99Change * 100);
+        latency.put("test", latencyTest);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("throughput", throughput);
+        report.put("latency", latency);
+        report.put("regressions", regressions);
+        return report;
+    }
+
+    private static double relativeChange(double baseline, double candidate) {
+        return baseline == 0 ? 0 : (candidate - baseline) / baseline;
+    }
+}
\ No newline at end of file
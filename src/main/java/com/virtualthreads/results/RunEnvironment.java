@@ -0,0 +1,78 @@
+package com.virtualthreads.results;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.RecordComponent;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// JVM, flags and hardware a run was measured on, so a regression can be traced to what changed
+public record RunEnvironment(
+        String javaVersion,
+        String vmName,
+        String vmVendor,
+        String vmVersion,
+        List<String> jvmArguments,
+        List<String> garbageCollectors,
+        int availableProcessors,
+        int schedulerParallelism,
+        long maxHeapBytes,
+        long physicalMemoryBytes,
+        String osName,
+        String osVersion,
+        String osArch,
+        String hostName) {
+
+    public static RunEnvironment capture() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        int processors = Runtime.getRuntime().availableProcessors();
+        long physicalMemory = ManagementFactory.getOperatingSystemMXBean()
+                instanceof com.sun.management.OperatingSystemMXBean os ? os.getTotalMemorySize() : -1;
+        return new RunEnvironment(
+                System.getProperty("java.version"),
+                runtime.getVmName(),
+                runtime.getVmVendor(),
+                runtime.getVmVersion(),
+                List.copyOf(runtime.getInputArguments()),
+                ManagementFactory.getGarbageCollectorMXBeans().stream().map(GarbageCollectorMXBean::getName).toList(),
+                processors,
+                Integer.getInteger("jdk.virtualThreadScheduler.parallelism", processors),
+                Runtime.getRuntime().maxMemory(),
+                physicalMemory,
+                System.getProperty("os.name"),
+                System.getProperty("os.version"),
+                System.getProperty("os.arch"),
+                localHostName());
+    }
+
+    // Fields that differ, as [this, other]
+    public Map<String, List<Object>> differencesFrom(RunEnvironment other) {
+        Map<String, List<Object>> differences = new LinkedHashMap<>();
+        for (RecordComponent component : RunEnvironment.class.getRecordComponents()) {
+            try {
+                Object mine = component.getAccessor().invoke(this);
+                Object theirs = component.getAccessor().invoke(other);
+                if (!Objects.equals(mine, theirs)) {
+                    differences.put(component.getName(), Arrays.asList(mine, theirs));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return differences;
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
\ No newline at end of file
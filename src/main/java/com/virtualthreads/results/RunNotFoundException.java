@@ -0,0 +1,12 @@
+package com.virtualthreads.results;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class RunNotFoundException extends RuntimeException {
+
+    public RunNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
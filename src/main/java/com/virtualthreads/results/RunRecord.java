@@ -0,0 +1,15 @@
+package com.virtualthreads.results;
+
+import java.time.Instant;
+import java.util.Map;
+
+// One persisted benchmark run: what was run, on what, and what each series measured
+public record RunRecord(
+        String id,
+        // compare, scalability, load-test-compare or open-model-compare
+        String kind,
+        Instant timestamp,
+        Map<String, Object> parameters,
+        RunEnvironment environment,
+        Map<String, SeriesResult> series) {
+}
\ No newline at end of file
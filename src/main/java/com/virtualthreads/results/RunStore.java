@@ -0,0 +1,129 @@
+package com.virtualthreads.results;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only store of benchmark runs: one JSON object per line in a local file, so runs
+ * survive restarts and builds and the file can be diffed, copied or archived as is. The
+ * whole history is read once at startup and kept in memory; runs are never rewritten.
+ */
+public class RunStore {
+    private static final Logger logger = LoggerFactory.getLogger(RunStore.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<RunRecord> runs = new ArrayList<>();
+
+    public RunStore(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        load();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    runs.add(objectMapper.readValue(line, RunRecord.class));
+                } catch (JsonProcessingException e) {
+                    // Most likely a line cut short by a crash mid-append
+                    logger.warn("Skipping unreadable run at {}:{}: {}", file, lineNumber, e.getOriginalMessage());
+                }
+            }
+            logger.info("Loaded {} benchmark runs from {}", runs.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read run store " + file, e);
+        }
+    }
+
+    // Persists a run; returns null (after logging) if it could not be written, so a finished
+    // benchmark is still reported even when the store is unavailable
+    public RunRecord record(String kind, Map<String, Object> parameters, Map<String, SeriesResult> series) {
+        RunRecord run = new RunRecord(UUID.randomUUID().toString(), kind, Instant.now(), parameters,
+                RunEnvironment.capture(), series);
+        lock.lock();
+        try {
+            String line = objectMapper.writeValueAsString(run);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, line + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            // Keep the form that was written, so stored and freshly recorded runs compare alike
+            RunRecord stored = objectMapper.readValue(line, RunRecord.class);
+            runs.add(stored);
+            return stored;
+        } catch (IOException e) {
+            logger.warn("Could not persist {} run to {}: {}", kind, file, e.getMessage());
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<RunRecord> find(String id) {
+        lock.lock();
+        try {
+            return runs.stream().filter(run -> run.id().equals(id)).findFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Newest first; kind may be null for all kinds
+    public List<RunRecord> list(String kind, int limit) {
+        lock.lock();
+        try {
+            return runs.stream()
+                    .filter(run -> kind == null || run.kind().equals(kind))
+                    .sorted(Comparator.comparing(RunRecord::timestamp).reversed())
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The most recent earlier runs of the same kind and parameters, newest first
+    public List<RunRecord> baselineFor(RunRecord candidate, int limit) {
+        lock.lock();
+        try {
+            return runs.stream()
+                    .filter(run -> run.kind().equals(candidate.kind())
+                            && run.parameters().equals(candidate.parameters())
+                            && run.timestamp().isBefore(candidate.timestamp()))
+                    .sorted(Comparator.comparing(RunRecord::timestamp).reversed())
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
\ No newline at end of file
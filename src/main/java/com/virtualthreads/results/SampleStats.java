@@ -0,0 +1,17 @@
+package com.virtualthreads.results;
+
+import java.util.Collection;
+
+// Mean, unbiased sample variance and size of a metric, the inputs to a WelchTest
+public record SampleStats(long count, double mean, double variance) {
+
+    public static SampleStats of(Collection<Double> values) {
+        long n = values.size();
+        if (n == 0) {
+            return new SampleStats(0, 0, 0);
+        }
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double squares = values.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum();
+        return new SampleStats(n, mean, n > 1 ? squares / (n - 1) : 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.virtualthreads.results;
+
+import com.virtualthreads.service.HistogramCodec;
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+
+/**
+ * One measured series of a run, e.g. the virtual-thread side of a comparison. Percentiles are
+ * in milliseconds; the full latency histogram is kept (compressed) so later comparisons can
+ * merge runs and test significance on the whole distribution, not just on the percentiles.
+ */
+public record SeriesResult(
+        long count,
+        long failed,
+        double throughput,
+        // Independent throughput observations within the run (per second of steady state for
+        // open-model tests); a single value when the run only yields one
+        List<Double> throughputSamples,
+        double meanMs,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs,
+        String latencyHistogram) {
+
+    public static SeriesResult of(Histogram latencyNanos, long failed, double throughput,
+                                  List<Double> throughputSamples) {
+        return new SeriesResult(
+                latencyNanos.getTotalCount(),
+                failed,
+                throughput,
+                throughputSamples,
+                latencyNanos.getMean() / 1_000_000.0,
+                latencyNanos.getValueAtPercentile(50) / 1_000_000.0,
+                latencyNanos.getValueAtPercentile(90) / 1_000_000.0,
+                latencyNanos.getValueAtPercentile(99) / 1_000_000.0,
+                latencyNanos.getValueAtPercentile(99.9) / 1_000_000.0,
+                latencyNanos.getMaxValue() / 1_000_000.0,
+                HistogramCodec.encode(latencyNanos));
+    }
+
+    // A series measured once, such as one aggregation's execution time
+    public static SeriesResult ofSingle(long latencyMs, double throughput) {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValue(Math.max(0, latencyMs) * 1_000_000);
+        return of(histogram, 0, throughput, List.of(throughput));
+    }
+
+    public Histogram decodeLatency() {
+        return HistogramCodec.decode(latencyHistogram);
+    }
+}
\ No newline at end of file
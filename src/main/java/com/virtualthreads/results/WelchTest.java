@@ -0,0 +1,107 @@
+package com.virtualthreads.results;
+
+/**
+ * Two-sided test of whether two samples have different means, given only their means,
+ * sample variances and sizes. Uses Welch's t-test when both sides have at least two
+ * observations; when the candidate is a single observation, tests whether it falls
+ * outside the baseline's prediction interval instead. Returns null when neither applies.
+ */
+public record WelchTest(double t, double degreesOfFreedom, double pValue) {
+
+    public static WelchTest of(SampleStats baseline, SampleStats candidate) {
+        if (baseline.count() < 2 || candidate.count() < 1) {
+            return null;
+        }
+        double difference = candidate.mean() - baseline.mean();
+        double standardError;
+        double df;
+        if (candidate.count() < 2) {
+            standardError = Math.sqrt(baseline.variance() * (1 + 1.0 / baseline.count()));
+            df = baseline.count() - 1;
+        } else {
+            double vb = baseline.variance() / baseline.count();
+            double vc = candidate.variance() / candidate.count();
+            standardError = Math.sqrt(vb + vc);
+            df = vb + vc == 0
+                    ? baseline.count() + candidate.count() - 2
+                    : (vb + vc) * (vb + vc) / (vb * vb / (baseline.count() - 1) + vc * vc / (candidate.count() - 1));
+        }
+        // Identical constant samples differ by nothing; distinct constant samples differ for certain
+        double t = standardError == 0
+                ? (difference == 0 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, difference))
+                : difference / standardError;
+        return new WelchTest(t, df, twoSidedPValue(t, df));
+    }
+
+    public boolean isSignificant(double alpha) {
+        return pValue < alpha;
+    }
+
+    // P(|T| > |t|) for Student's t with df degrees of freedom, via the regularized incomplete beta
+    static double twoSidedPValue(double t, double df) {
+        if (Double.isInfinite(t)) {
+            return 0;
+        }
+        return regularizedIncompleteBeta(df / (df + t * t), df / 2, 0.5);
+    }
+
+    static double regularizedIncompleteBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0;
+        }
+        if (x >= 1) {
+            return 1;
+        }
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+                + a * Math.log(x) + b * Math.log(1 - x));
+        // The continued fraction converges quickly only on this side of the mean
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    // Lentz's method for the continued fraction of the incomplete beta function
+    private static double betaContinuedFraction(double x, double a, double b) {
+        double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = 1 / (Math.abs(d) < tiny ? tiny : d);
+        double result = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double numerator = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            result *= d * c;
+
+            numerator = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            double delta = d * c;
+            result *= delta;
+            if (Math.abs(delta - 1) < 1e-12) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static double nonZero(double value, double tiny) {
+        return Math.abs(value) < tiny ? tiny : value;
+    }
+
+    // Lanczos approximation
+    private static double logGamma(double x) {
+        double[] coefficients = {76.18009172947146, -86.50532032941677, 24.01409824083091,
+                -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5};
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.virtualthreads.service;
 
+import com.virtualthreads.concurrent.FanOutPolicy;
+import com.virtualthreads.concurrent.StructuredFanOutScope;
+import com.virtualthreads.model.AggregatedResult;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import com.virtualthreads.results.RunStore;
+import com.virtualthreads.results.SeriesResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,84 +32,240 @@ public class ApiOrchestratorService {
     private static final Logger logger = LoggerFactory.getLogger(ApiOrchestratorService.class);
 
     private final ExternalApiService externalApiService;
+    private final Optional<RunStore> runStore;
+    private final FanOutMetrics metrics;
 
-    public ApiOrchestratorService(ExternalApiService externalApiService) {
+    public ApiOrchestratorService(ExternalApiService externalApiService, Optional<RunStore> runStore,
+                                  FanOutMetrics metrics) {
         this.externalApiService = externalApiService;
+        this.runStore = runStore;
+        this.metrics = metrics;
     }
 
     public Map<String, Object> aggregateWithPlatformThreads(int apiCount, int delayMs) {
-        long startTime = System.currentTimeMillis();
+        return aggregateWithPlatformThreads(apiCount, delayMs, FetchOptions.defaults());
+    }
+
+    public Map<String, Object> aggregateWithPlatformThreads(int apiCount, int delayMs, FetchOptions options) {
+        long startTime = System.nanoTime();
+        ResourceUsage usageBefore = ResourceUsage.snapshot();
         logger.info("Starting aggregation with platform threads. API count: {}, delay: {}ms", apiCount, delayMs);
 
-        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        List<CompletableFuture<AggregatedResult>> futures = new ArrayList<>();
 
         for (int i = 0; i < apiCount; i++) {
             // Use the mock-api endpoint instead of example.com
             String apiUrl = "/mock-api/" + i;
-            futures.add(externalApiService.fetchDataWithPlatformThreads(apiUrl, delayMs));
+            futures.add(externalApiService.fetchDataWithPlatformThreads(apiUrl, delayMs, options));
         }
 
-        List<Map<String, Object>> results;
         try {
-            results = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApply(v -> futures.stream()
-                            .map(this::getMapFromFuture)
-                            .collect(Collectors.toList()))
-                    .get();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to aggregate API results", e);
         }
 
-        long totalTime = System.currentTimeMillis() - startTime;
+        long joinedAt = System.nanoTime();
+        List<AggregatedResult> results = futures.stream()
+                .map(this::getResultFromFuture)
+                .collect(Collectors.toList());
+
+        long totalTime = (System.nanoTime() - startTime) / 1_000_000;
 
         Map<String, Object> response = new HashMap<>();
         response.put("executionTimeMs", totalTime);
         response.put("apiCount", apiCount);
         response.put("results", results);
         response.put("threadType", "platform");
+        response.put("clientType", options.clientType().name());
+        response.put("resourceUsage", ResourceUsage.snapshot().since(usageBefore).toMap(apiCount));
+        metrics.recordSince(Stage.AGGREGATE, "platform", joinedAt);
 
         logger.info("Completed aggregation with platform threads in {}ms", totalTime);
         return response;
     }
 
     public Map<String, Object> aggregateWithVirtualThreads(int apiCount, int delayMs) {
-        long startTime = System.currentTimeMillis();
+        return aggregateWithVirtualThreads(apiCount, delayMs, FetchOptions.defaults());
+    }
+
+    public Map<String, Object> aggregateWithVirtualThreads(int apiCount, int delayMs, FetchOptions options) {
+        long startTime = System.nanoTime();
+        ResourceUsage usageBefore = ResourceUsage.snapshot();
         logger.info("Starting aggregation with virtual threads. API count: {}, delay: {}ms", apiCount, delayMs);
 
-        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        List<CompletableFuture<AggregatedResult>> futures = new ArrayList<>();
 
         for (int i = 0; i < apiCount; i++) {
             // Use the mock-api endpoint instead of example.com
             String apiUrl = "/mock-api/" + i;
-            futures.add(externalApiService.fetchDataWithVirtualThreads(apiUrl, delayMs));
+            futures.add(externalApiService.fetchDataWithVirtualThreads(apiUrl, delayMs, options));
         }
 
-        List<Map<String, Object>> results;
         try {
-            results = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApply(v -> futures.stream()
-                            .map(this::getMapFromFuture)
-                            .collect(Collectors.toList()))
-                    .get();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to aggregate API results", e);
         }
 
-        long totalTime = System.currentTimeMillis() - startTime;
+        long joinedAt = System.nanoTime();
+        List<AggregatedResult> results = futures.stream()
+                .map(this::getResultFromFuture)
+                .collect(Collectors.toList());
+
+        long totalTime = (System.nanoTime() - startTime) / 1_000_000;
 
         Map<String, Object> response = new HashMap<>();
         response.put("executionTimeMs", totalTime);
         response.put("apiCount", apiCount);
         response.put("results", results);
         response.put("threadType", "virtual");
+        response.put("clientType", options.clientType().name());
+        response.put("resourceUsage", ResourceUsage.snapshot().since(usageBefore).toMap(apiCount));
+        metrics.recordSince(Stage.AGGREGATE, "virtual", joinedAt);
 
         logger.info("Completed aggregation with virtual threads in {}ms", totalTime);
         return response;
     }
 
-    private Map<String, Object> getMapFromFuture(CompletableFuture<Map<String, Object>> future) {
+    public Map<String, Object> aggregateWithStructuredConcurrency(int apiCount, int delayMs, long deadlineMs,
+                                                                  FanOutPolicy policy, int successThreshold) {
+        return aggregateWithStructuredConcurrency(apiCount, delayMs, deadlineMs, policy, successThreshold,
+                FetchOptions.defaults());
+    }
+
+    public Map<String, Object> aggregateWithStructuredConcurrency(int apiCount, int delayMs, long deadlineMs,
+                                                                  FanOutPolicy policy, int successThreshold,
+                                                                  FetchOptions options) {
+        long startTime = System.nanoTime();
+        ResourceUsage usageBefore = ResourceUsage.snapshot();
+        int requiredSuccesses = policy == FanOutPolicy.FIRST_K
+                ? Math.max(1, Math.min(successThreshold, apiCount))
+                : apiCount;
+        logger.info("Starting structured aggregation. API count: {}, delay: {}ms, deadline: {}ms, policy: {}",
+                apiCount, delayMs, deadlineMs, policy);
+
+        Instant deadline = Instant.now().plusMillis(deadlineMs);
+        // Each call gets whatever is left of the aggregation's deadline, so hedges and retries stop in time
+        FetchOptions callOptions = options.withDeadline(System.nanoTime() + deadlineMs * 1_000_000);
+        List<AggregatedResult> results;
+        List<String> errors;
+        boolean timedOut;
+        boolean satisfied;
+        long joinedAt;
+
+        try (var scope = new StructuredFanOutScope<AggregatedResult>(
+                "structured-aggregation", policy, requiredSuccesses, apiCount)) {
+            for (int i = 0; i < apiCount; i++) {
+                String apiUrl = "/mock-api/" + i;
+                scope.fork(() -> externalApiService.fetchData(apiUrl, delayMs, callOptions));
+            }
+
+            scope.joinUntilDeadline(deadline);
+            joinedAt = System.nanoTime();
+
+            results = scope.results();
+            errors = scope.failures().stream()
+                    .map(t -> t.getCause() != null ? t.getCause().getMessage() : t.getMessage())
+                    .collect(Collectors.toList());
+            timedOut = scope.isTimedOut();
+            satisfied = scope.isSatisfied();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Structured aggregation was interrupted", e);
+        }
+
+        long totalTime = (System.nanoTime() - startTime) / 1_000_000;
+
+        String status;
+        if (satisfied) {
+            status = "COMPLETED";
+        } else if (timedOut) {
+            status = "TIMED_OUT";
+        } else {
+            status = "FAILED";
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("executionTimeMs", totalTime);
+        response.put("apiCount", apiCount);
+        response.put("results", results);
+        response.put("threadType", "structured");
+        response.put("clientType", options.clientType().name());
+        response.put("resourceUsage", ResourceUsage.snapshot().since(usageBefore).toMap(apiCount));
+        response.put("policy", policy.name());
+        response.put("requiredSuccesses", requiredSuccesses);
+        response.put("deadlineMs", deadlineMs);
+        response.put("status", status);
+        response.put("partial", results.size() < apiCount);
+        response.put("succeeded", results.size());
+        response.put("failed", errors.size());
+        response.put("cancelled", apiCount - results.size() - errors.size());
+        response.put("errors", errors);
+        metrics.recordSince(Stage.AGGREGATE, "structured", joinedAt);
+
+        logger.info("Completed structured aggregation with status {} in {}ms", status, totalTime);
+        return response;
+    }
+
+    // Hands each result to the sink as soon as its call completes instead of collecting the full list.
+    // At most `window` calls are outstanding, and a sink blocked on a slow client stops new calls from
+    // being issued, so heap use per request is bounded by the window rather than by apiCount.
+    public Map<String, Object> streamWithVirtualThreads(int apiCount, int delayMs, int window, FetchOptions options,
+                                                        ResultSink sink) throws IOException, InterruptedException {
+        long startTime = System.nanoTime();
+        int effectiveWindow = Math.max(1, Math.min(window, apiCount));
+        logger.info("Starting streaming aggregation with virtual threads. API count: {}, delay: {}ms, window: {}",
+                apiCount, delayMs, effectiveWindow);
+
+        // Holds either an AggregatedResult or an error map for a failed call
+        BlockingQueue<Object> completed = new LinkedBlockingQueue<>();
+        int submitted = 0;
+        int received = 0;
+        int failed = 0;
+
+        while (received < apiCount) {
+            while (submitted < apiCount && submitted - received < effectiveWindow) {
+                String apiUrl = "/mock-api/" + submitted;
+                externalApiService.fetchDataWithVirtualThreads(apiUrl, delayMs, options)
+                        .whenComplete((result, error) -> completed.add(error == null
+                                ? result
+                                : Map.of("url", apiUrl, "error", String.valueOf(error.getMessage()))));
+                submitted++;
+            }
+
+            Object item = completed.take();
+            received++;
+            if (!(item instanceof AggregatedResult)) {
+                failed++;
+            }
+            sink.accept(item);
+        }
+
+        long totalTime = (System.nanoTime() - startTime) / 1_000_000;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("executionTimeMs", totalTime);
+        summary.put("apiCount", apiCount);
+        summary.put("succeeded", apiCount - failed);
+        summary.put("failed", failed);
+        summary.put("window", effectiveWindow);
+        summary.put("threadType", "virtual");
+        summary.put("clientType", options.clientType().name());
+
+        logger.info("Completed streaming aggregation with virtual threads in {}ms", totalTime);
+        return summary;
+    }
+
+    // Receives streamed results; blocking here applies backpressure to the fan-out
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(Object result) throws IOException;
+    }
+
+    private AggregatedResult getResultFromFuture(CompletableFuture<AggregatedResult> future) {
         try {
             return future.get();
         } catch (InterruptedException | ExecutionException e) {
@@ -104,6 +275,15 @@ public class ApiOrchestratorService {
     }
 
     public Map<String, Object> runComparison(int apiCount, int delayMs) {
+        Map<String, Object> comparison = compare(apiCount, delayMs);
+        Map<String, SeriesResult> series = new LinkedHashMap<>();
+        addComparisonSeries(series, comparison, apiCount, "");
+        runStore.map(store -> store.record("compare", Map.of("apiCount", apiCount, "delayMs", delayMs), series))
+                .ifPresent(run -> comparison.put("runId", run.id()));
+        return comparison;
+    }
+
+    private Map<String, Object> compare(int apiCount, int delayMs) {
         Map<String, Object> platformResult = aggregateWithPlatformThreads(apiCount, delayMs);
         Map<String, Object> virtualResult = aggregateWithVirtualThreads(apiCount, delayMs);
 
@@ -118,12 +298,43 @@ public class ApiOrchestratorService {
         return comparison;
     }
 
+    // One aggregation per thread type: its execution time as latency, calls per second as throughput
+    @SuppressWarnings("unchecked")
+    private static void addComparisonSeries(Map<String, SeriesResult> series, Map<String, Object> comparison,
+                                            int apiCount, String suffix) {
+        for (String threadType : List.of("platform", "virtual")) {
+            Map<String, Object> result = (Map<String, Object>) comparison.get(threadType + "Threads");
+            long executionTimeMs = (long) result.get("executionTimeMs");
+            series.put(threadType + suffix,
+                    SeriesResult.ofSingle(executionTimeMs, apiCount * 1000.0 / Math.max(1, executionTimeMs)));
+        }
+    }
+
     // Method to test performance with increasing concurrent requests
     public Map<String, Object> scalabilityTest(int maxApiCount, int delayMs, int step) {
+        return scalabilityTest(maxApiCount, delayMs, step, comparison -> {
+        });
+    }
+
+    // Hands each step's comparison to onStep as soon as it finishes. An interrupt ends the sweep with
+    // an exception, from the step waiting on its calls or, between steps, a CancellationException.
+    public Map<String, Object> scalabilityTest(int maxApiCount, int delayMs, int step,
+                                               Consumer<Map<String, Object>> onStep) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
         List<Map<String, Object>> results = new ArrayList<>();
+        Map<String, SeriesResult> series = new LinkedHashMap<>();
 
         for (int count = step; count <= maxApiCount; count += step) {
-            results.add(runComparison(count, delayMs));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Scalability test cancelled after " + results.size() + " steps");
+            }
+            Map<String, Object> comparison = compare(count, delayMs);
+            comparison.put("apiCount", count);
+            addComparisonSeries(series, comparison, count, "@" + count);
+            results.add(comparison);
+            onStep.accept(comparison);
         }
 
         Map<String, Object> scalabilityResults = new HashMap<>();
@@ -133,6 +344,9 @@ public class ApiOrchestratorService {
                 "step", step
         ));
         scalabilityResults.put("results", results);
+        runStore.map(store -> store.record("scalability",
+                        Map.of("maxApiCount", maxApiCount, "delayMs", delayMs, "step", step), series))
+                .ifPresent(run -> scalabilityResults.put("runId", run.id()));
 
         return scalabilityResults;
     }
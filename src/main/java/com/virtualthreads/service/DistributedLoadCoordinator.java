@@ -0,0 +1,278 @@
+package com.virtualthreads.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.config.LoadTestProperties;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Runs one open-model test across several worker instances of this application, each in its
+ * own JVM, so the load generator does not compete with the system under test for CPU and
+ * carrier threads. The target rate is split evenly between workers; each streams its
+ * per-second latency histograms back as NDJSON, and the coordinator adds them into one
+ * report. Histograms are merged rather than averaged, so the combined percentiles are exact.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DistributedLoadCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(DistributedLoadCoordinator.class);
+
+    private static final String WORKER_PATH = "/api/load-test/worker/open-model";
+    // Workers drain in-flight requests for up to 30s after the schedule ends
+    private static final Duration WORKER_GRACE = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final ManagedExecutors executors;
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties properties;
+
+    public DistributedLoadCoordinator(HttpClient httpClient, ManagedExecutors executors, ObjectMapper objectMapper,
+                                      LoadTestProperties properties) {
+        this.httpClient = httpClient;
+        this.executors = executors;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> run(List<String> workers, String targetUrl, String threadType, int apiCount,
+                                   int delayMs, boolean cache, LoadProfile profile) {
+        List<String> workerUrls = workers == null || workers.isEmpty() ? properties.workers() : workers;
+        if (workerUrls.isEmpty()) {
+            throw new IllegalArgumentException("No workers given; pass workers= or set app.load-test.workers");
+        }
+        for (String workerUrl : workerUrls) {
+            if (!properties.allowsWorker(workerUrl)) {
+                throw new LoadTargetNotAllowedException("Worker " + workerUrl + " is not in app.load-test.workers");
+            }
+        }
+        String baseUrl = targetUrl == null || targetUrl.isBlank() ? properties.targetUrl() : targetUrl;
+        if (!properties.allowsTarget(baseUrl)) {
+            throw new LoadTargetNotAllowedException("Target " + baseUrl
+                    + " is not app.load-test.target-url or in app.load-test.allowed-targets");
+        }
+        // Every worker needs at least 1 rps of its own
+        workerUrls = workerUrls.subList(0, Math.min(workerUrls.size(), profile.targetRps()));
+        String testName = LoadTestService.testName(threadType);
+        String sliceUrl = baseUrl + LoadTestService.aggregationPath(threadType, apiCount, delayMs, cache);
+        logger.info("Starting distributed load test: {}, URL: {}, target: {} rps across {} workers",
+                testName, sliceUrl, profile.targetRps(), workerUrls.size());
+
+        MergedRun merged = new MergedRun(profile);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int workerCount = workerUrls.size();
+        for (int i = 0; i < workerCount; i++) {
+            String workerUrl = stripTrailingSlash(workerUrls.get(i));
+            // Spread the remainder so the slices add up to exactly targetRps
+            LoadProfile slice = new LoadProfile(
+                    profile.targetRps() / workerCount + (i < profile.targetRps() % workerCount ? 1 : 0),
+                    profile.rampUp(), profile.steadyState(), profile.coolDown(),
+                    Math.max(1, (profile.maxInFlight() + workerCount - 1) / workerCount));
+            futures.add(CompletableFuture.runAsync(
+                    () -> runWorker(workerUrl, sliceUrl, slice, merged), executors.loadTestVirtualExecutor()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        Map<String, Object> report = merged.toMap();
+        report.put("testName", testName + " (distributed)");
+        report.put("targetUrl", sliceUrl);
+        report.put("workers", workerUrls);
+        logger.info("Distributed load test completed: {}, throughput: {} rps, p99: {}ms", testName,
+                String.format("%.1f", (double) report.get("throughput")),
+                ((Map<String, Object>) report.get("latencyMs")).get("p99"));
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runWorker(String workerUrl, String sliceUrl, LoadProfile slice, MergedRun merged) {
+        String url = workerUrl + WORKER_PATH
+                + "?workerId=" + URLEncoder.encode(workerUrl, StandardCharsets.UTF_8)
+                + "&targetUrl=" + URLEncoder.encode(sliceUrl, StandardCharsets.UTF_8)
+                + "&targetRps=" + slice.targetRps()
+                + "&rampUpSec=" + slice.rampUp().toSeconds()
+                + "&durationSec=" + slice.steadyState().toSeconds()
+                + "&coolDownSec=" + slice.coolDown().toSeconds()
+                + "&maxInFlight=" + slice.maxInFlight();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(slice.totalDuration().plus(WORKER_GRACE))
+                .GET()
+                .build();
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() >= 400) {
+                    merged.workerFailed(workerUrl, "HTTP " + response.statusCode());
+                    return;
+                }
+                boolean completed = false;
+                for (Iterator<String> it = lines.iterator(); it.hasNext(); ) {
+                    String line = it.next();
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(line);
+                    if ("interval".equals(node.path("type").asText())) {
+                        merged.addInterval(node.path("offsetNanos").asLong(), node.path("intervalNanos").asLong(),
+                                HistogramCodec.decode(node.path("latency").asText()),
+                                HistogramCodec.decode(node.path("serviceTime").asText()),
+                                node.path("failed").asLong(), node.path("inFlight").asInt());
+                    } else if ("summary".equals(node.path("type").asText())) {
+                        merged.addSummary(workerUrl, objectMapper.convertValue(node, Map.class));
+                        completed = true;
+                    }
+                }
+                if (!completed) {
+                    merged.workerFailed(workerUrl, "Stream ended without a summary");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Worker {} failed: {}", workerUrl, e.getMessage());
+            merged.workerFailed(workerUrl, String.valueOf(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            merged.workerFailed(workerUrl, "Interrupted");
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    // Totals and a per-second time series built by adding every worker's interval histograms.
+    // Guarded by a ReentrantLock rather than synchronized so virtual threads never pin on it
+    private static final class MergedRun {
+        private final LoadProfile profile;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Histogram latency = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        // Keyed by the second an interval ends in; workers start within milliseconds of each other
+        private final TreeMap<Long, MergedInterval> intervals = new TreeMap<>();
+        private final List<Map<String, Object>> workerSummaries = new ArrayList<>();
+        private final Map<String, String> workerErrors = new LinkedHashMap<>();
+        private long sent;
+        private long succeeded;
+        private long failed;
+        private long dropped;
+        private long durationNanos;
+
+        private MergedRun(LoadProfile profile) {
+            this.profile = profile;
+        }
+
+        void addInterval(long offsetNanos, long intervalNanos, Histogram intervalLatency,
+                         Histogram intervalServiceTime, long intervalFailed, int inFlight) {
+            lock.lock();
+            try {
+                latency.add(intervalLatency);
+                serviceTime.add(intervalServiceTime);
+                long second = (offsetNanos + 999_999_999) / 1_000_000_000;
+                MergedInterval interval = intervals.computeIfAbsent(second, s -> new MergedInterval());
+                interval.latency.add(intervalLatency);
+                interval.throughput += intervalLatency.getTotalCount() * 1_000_000_000.0
+                        / Math.max(1, intervalNanos);
+                interval.failed += intervalFailed;
+                interval.inFlight += inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void addSummary(String workerUrl, Map<String, Object> summary) {
+            Map<String, Object> workerSummary = new LinkedHashMap<>(summary);
+            workerSummary.remove("type");
+            workerSummary.put("worker", workerUrl);
+            lock.lock();
+            try {
+                sent += ((Number) summary.get("sent")).longValue();
+                succeeded += ((Number) summary.get("succeeded")).longValue();
+                failed += ((Number) summary.get("failed")).longValue();
+                dropped += ((Number) summary.get("dropped")).longValue();
+                durationNanos = Math.max(durationNanos, ((Number) summary.get("durationNanos")).longValue());
+                workerSummaries.add(workerSummary);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void workerFailed(String workerUrl, String error) {
+            lock.lock();
+            try {
+                workerErrors.put(workerUrl, error);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            lock.lock();
+            try {
+                return snapshot();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Map<String, Object> snapshot() {
+            List<Map<String, Object>> timeSeries = new ArrayList<>();
+            intervals.forEach((second, interval) -> {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("offsetSec", second);
+                point.put("phase", profile.phaseAt(Math.max(0, second * 1_000_000_000 - 1)));
+                point.put("throughput", interval.throughput);
+                point.put("failed", interval.failed);
+                point.put("inFlight", interval.inFlight);
+                point.put("p50Ms", interval.latency.getValueAtPercentile(50) / 1_000_000.0);
+                point.put("p99Ms", interval.latency.getValueAtPercentile(99) / 1_000_000.0);
+                timeSeries.add(point);
+            });
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("targetRps", profile.targetRps());
+            results.put("rampUpSec", profile.rampUp().toSeconds());
+            results.put("steadyStateSec", profile.steadyState().toSeconds());
+            results.put("coolDownSec", profile.coolDown().toSeconds());
+            results.put("durationMs", durationNanos / 1_000_000);
+            results.put("sentRequests", sent);
+            results.put("successfulRequests", succeeded);
+            results.put("failedRequests", failed);
+            results.put("droppedRequests", dropped);
+            results.put("throughput", durationNanos == 0 ? 0.0 : succeeded * 1_000_000_000.0 / durationNanos);
+            results.put("latencyMs", OpenModelRun.percentiles(latency));
+            results.put("serviceTimeMs", OpenModelRun.percentiles(serviceTime));
+            results.put("timeSeries", timeSeries);
+            results.put("workerResults", workerSummaries);
+            results.put("workerErrors", workerErrors);
+            return results;
+        }
+    }
+
+    private static final class MergedInterval {
+        private final Histogram latency = new Histogram(3);
+        private double throughput;
+        private long failed;
+        private int inFlight;
+    }
+}
\ No newline at end of file
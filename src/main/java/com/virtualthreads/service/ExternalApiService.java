@@ -1,105 +1,541 @@
 package com.virtualthreads.service;
 
+import com.virtualthreads.batch.MicroBatcher;
+import com.virtualthreads.cache.SingleFlightCache;
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.client.MockApiClient;
+import com.virtualthreads.client.MockApiClients;
+import com.virtualthreads.concurrent.AdaptiveConcurrencyLimiter;
+import com.virtualthreads.concurrent.ConcurrencyLimitExceededException;
+import com.virtualthreads.concurrent.HostConcurrencyLimiter;
+import com.virtualthreads.concurrent.InstrumentedExecutor;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.config.BatchingProperties;
+import com.virtualthreads.context.RequestContext;
+import com.virtualthreads.model.AggregatedResult;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import com.virtualthreads.resilience.CallTimeoutException;
+import com.virtualthreads.resilience.ResilientCaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 @Service
 public class ExternalApiService {
     private static final Logger logger = LoggerFactory.getLogger(ExternalApiService.class);
 
-    private final WebClient webClient;
-    private final ExecutorService platformThreadPool;
+    // Thread type reported in logs and stage timers for cache loads
+    private static final String CACHE_LOAD = "cache-load";
+    // Delay and scenario come from the query string, so the batchers are capped rather than kept per value
+    private static final int MAX_BATCHERS = 256;
 
-    // Host and port for our local service
-    private final String baseUrl = "http://localhost:8080";
+    private final MockApiClients clients;
+    private final ManagedExecutors executors;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+    private final SingleFlightCache<String, MockApiResponse> responseCache;
+    private final AdaptiveConcurrencyLimiter adaptiveLimiter;
+    private final BatchingProperties batching;
+    private final ResilientCaller resilientCaller;
+    private final FanOutMetrics metrics;
+    // Fraction of calls whose start and completion are logged at INFO
+    private final double callLogSampleRate;
+    // One batcher per combination that maps onto a single /mock-api/batch URL and executor, least
+    // recently used first. An evicted batcher still flushes its open batch when its window closes;
+    // its counts are kept in the retired totals so the batch meters never go backwards.
+    private final ReentrantLock batchersLock = new ReentrantLock();
+    private final LongAdder retiredBatchedRequests = new LongAdder();
+    private final LongAdder retiredBatchCalls = new LongAdder();
+    private final LongAdder retiredBatchedIds = new LongAdder();
+    private final LinkedHashMap<BatchGroup, MicroBatcher<String, AggregatedResult>> batchers =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<BatchGroup, MicroBatcher<String, AggregatedResult>> eldest) {
+                    if (size() <= MAX_BATCHERS) {
+                        return false;
+                    }
+                    retiredBatchedRequests.add(eldest.getValue().requests());
+                    retiredBatchCalls.add(eldest.getValue().batches());
+                    retiredBatchedIds.add(eldest.getValue().keys());
+                    return true;
+                }
+            };
 
-    public ExternalApiService(WebClient webClient) {
-        this.webClient = webClient;
-        // Traditional fixed thread pool with 200 threads
-        this.platformThreadPool = Executors.newFixedThreadPool(200);
+    // Where the mock API is served; this application itself unless another instance is named
+    private final String baseUrl;
+    private final String baseHost;
+
+    public ExternalApiService(MockApiClients clients, ManagedExecutors executors,
+                              SingleFlightCache<String, MockApiResponse> responseCache,
+                              Optional<AdaptiveConcurrencyLimiter> adaptiveLimiter,
+                              BatchingProperties batching,
+                              ResilientCaller resilientCaller,
+                              FanOutMetrics metrics,
+                              @Value("${app.mock-api.base-url:http://localhost:${server.port:8080}}") String baseUrl,
+                              @Value("${app.logging.call-sample-rate:0.001}") double callLogSampleRate) {
+        this.clients = clients;
+        this.executors = executors;
+        this.hostConcurrencyLimiter = executors.hostConcurrencyLimiter();
+        this.responseCache = responseCache;
+        // Absent unless app.limiter.enabled=true
+        this.adaptiveLimiter = adaptiveLimiter.orElse(null);
+        this.batching = batching;
+        this.resilientCaller = resilientCaller;
+        this.metrics = metrics;
+        this.baseUrl = baseUrl;
+        this.baseHost = URI.create(baseUrl).getAuthority();
+        this.callLogSampleRate = callLogSampleRate;
     }
 
     // Method using platform threads
-    public CompletableFuture<Map<String, Object>> fetchDataWithPlatformThreads(String apiUrl, int delayMs) {
+    public CompletableFuture<AggregatedResult> fetchDataWithPlatformThreads(String apiUrl, int delayMs) {
+        return fetchDataWithPlatformThreads(apiUrl, delayMs, FetchOptions.defaults());
+    }
+
+    public CompletableFuture<AggregatedResult> fetchDataWithPlatformThreads(String apiUrl, int delayMs,
+                                                                          FetchOptions options) {
+        return submit(apiUrl, delayMs, "platform", withRequestDeadline(options), executors.fetchPlatformExecutor());
+    }
+
+    // Method using virtual threads
+    public CompletableFuture<AggregatedResult> fetchDataWithVirtualThreads(String apiUrl, int delayMs) {
+        return fetchDataWithVirtualThreads(apiUrl, delayMs, FetchOptions.defaults());
+    }
+
+    public CompletableFuture<AggregatedResult> fetchDataWithVirtualThreads(String apiUrl, int delayMs,
+                                                                         FetchOptions options) {
+        return submit(apiUrl, delayMs, "virtual", withRequestDeadline(options), executors.fetchVirtualExecutor());
+    }
+
+    // Blocking call on the caller's thread, used by structured fan-out where the scope owns the threads
+    public AggregatedResult fetchData(String apiUrl, int delayMs) {
+        return fetchData(apiUrl, delayMs, FetchOptions.defaults());
+    }
+
+    public AggregatedResult fetchData(String apiUrl, int delayMs, FetchOptions requestOptions) {
+        FetchOptions options = withRequestDeadline(requestOptions);
+        MockApiClient client = clients.get(options.clientType());
+        if (!options.useCache() && !options.batch()) {
+            return executeRequest(apiUrl, delayMs, "structured", options, client);
+        }
+        checkRequestActive();
+        if (options.useCache()) {
+            // The scope's thread parks until the shared load completes, then adds its own thread details
+            MockApiResponse response = await(cachedResponse(apiUrl, delayMs, options), options);
+            return enhance(buildUrl(apiUrl, delayMs, options), response, delayMs, options, client);
+        }
+        // The scope's thread parks until the shared batch call completes
+        return await(submit(apiUrl, delayMs, "structured", options, executors.fetchVirtualExecutor()), options);
+    }
+
+    private static <T> T await(CompletableFuture<T> pending, FetchOptions options) {
+        try {
+            return withinDeadline(pending, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CallTimeoutException timeout) {
+                throw timeout;
+            }
+            throw new RuntimeException("Request failed", e.getCause());
+        }
+    }
+
+    // A shared load runs without any caller's deadline; each caller still stops waiting at its own.
+    // The copy is bounded, so the timeout never completes the future other callers share
+    private static <T> CompletableFuture<T> withinDeadline(CompletableFuture<T> shared, FetchOptions options) {
+        long remainingNanos = options.callPolicy().remainingNanos();
+        if (remainingNanos == Long.MAX_VALUE) {
+            return shared;
+        }
+        return shared.copy()
+                .orTimeout(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS)
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(error instanceof TimeoutException
+                        ? new CallTimeoutException("Deadline passed while waiting for a shared call", null)
+                        : error));
+    }
+
+    // A deadline the caller sent with the request bounds every call made for it
+    private static FetchOptions withRequestDeadline(FetchOptions options) {
+        return RequestContext.current()
+                .filter(RequestContext::hasDeadline)
+                .map(context -> options.withDeadline(context.deadlineNanos()))
+                .orElse(options);
+    }
+
+    // Calls still queued when their request ends are dropped instead of sent
+    private static void checkRequestActive() {
+        RequestContext.current().ifPresent(context -> context.cancellation().throwIfCancelled());
+    }
+
+    private CompletableFuture<AggregatedResult> submit(String apiUrl, int delayMs, String threadType,
+                                                       FetchOptions options, InstrumentedExecutor executor) {
+        if (options.useCache()) {
+            // Hits and coalesced callers get their own thread and client details on their own executor
+            MockApiClient client = clients.get(options.clientType());
+            String fullUrl = buildUrl(apiUrl, delayMs, options);
+            return withinDeadline(cachedResponse(apiUrl, delayMs, options), options)
+                    .thenApplyAsync(response -> enhance(fullUrl, response, delayMs, options, client), executor);
+        }
+        return submitUncached(apiUrl, delayMs, threadType, options, executor);
+    }
+
+    // Only the response body is cached: thread details and the client differ per caller. A miss is
+    // loaded on the cache-load executor, outside every caller's request context and deadline, so
+    // one caller being cancelled or timing out does not fail the others coalesced on the entry
+    private CompletableFuture<MockApiResponse> cachedResponse(String apiUrl, int delayMs, FetchOptions options) {
+        FetchOptions loadOptions = options.withoutDeadline();
+        InstrumentedExecutor loader = executors.cacheLoadExecutor();
+        return responseCache.get(buildUrl(apiUrl, delayMs, options), () -> {
+            if (options.batch()) {
+                return submitBatched(apiUrl, delayMs, CACHE_LOAD, loadOptions, loader)
+                        .thenApply(AggregatedResult::data);
+            }
+            MockApiClient client = clients.get(options.clientType());
+            String fullUrl = buildUrl(apiUrl, delayMs, options);
+            return CompletableFuture.supplyAsync(
+                    () -> fetchResponse(fullUrl, delayMs, CACHE_LOAD, loadOptions, client), loader);
+        });
+    }
+
+    private CompletableFuture<AggregatedResult> submitUncached(String apiUrl, int delayMs, String threadType,
+                                                               FetchOptions options,
+                                                               InstrumentedExecutor executor) {
+        if (options.batch()) {
+            return submitBatched(apiUrl, delayMs, threadType, options, executor);
+        }
+        MockApiClient client = clients.get(options.clientType());
+        // Hedging and deadlines cancel attempts by interrupt, which needs the blocking path
+        if (client.isNonBlocking() && !options.callPolicy().isActive()) {
+            return executeNonBlocking(apiUrl, delayMs, threadType, options, client, executor);
+        }
+        long submittedAt = System.nanoTime();
         return CompletableFuture.supplyAsync(() -> {
-            long startTime = System.currentTimeMillis();
-            String fullUrl = baseUrl + "/mock-api/" + extractApiId(apiUrl) + "?delayMs=" + delayMs;
-            logger.info("Starting platform thread request to {} with delay {}ms", fullUrl, delayMs);
-
-            try {
-                // Make actual HTTP request to our mock service
-                Map<String, Object> response = webClient.get()
-                        .uri(fullUrl)
-                        .retrieve()
-                        .bodyToMono(Map.class)
-                        .block();
-
-                // Add additional thread info
-                Map<String, Object> enhancedResponse = Map.of(
-                        "url", fullUrl,
-                        "data", response,
-                        "threadInfo", Thread.currentThread().toString(),
-                        "isVirtual", Thread.currentThread().isVirtual(),
-                        "delay", delayMs
-                );
-
-                long endTime = System.currentTimeMillis();
-                logger.info("Completed platform thread request to {} in {}ms", fullUrl, (endTime - startTime));
-
-                return enhancedResponse;
-            } catch (Exception e) {
-                logger.error("Error making request to {}: {}", fullUrl, e.getMessage());
-                throw new RuntimeException("Request failed", e);
+            metrics.recordSince(Stage.QUEUE, threadType, submittedAt);
+            return executeRequest(apiUrl, delayMs, threadType, options, client);
+        }, executor);
+    }
+
+    // Queues the id with other concurrent calls for the same delay, client and hedging/retry policy;
+    // the batch is fetched on the given executor once it fills up or its window closes. The batch
+    // call is shared, so it runs without a deadline and each caller stops waiting at its own. It is
+    // also dispatched outside every caller's RequestContext, whether the batch filled on a caller's
+    // thread or was flushed by its timer, so no one caller's headers go out on it
+    private CompletableFuture<AggregatedResult> submitBatched(String apiUrl, int delayMs, String threadType,
+                                                              FetchOptions options, InstrumentedExecutor executor) {
+        BatchGroup group = new BatchGroup(threadType, options.clientType(), delayMs, options.includeThreadInfo(),
+                options.scenario(), options.callPolicy().hedge(), options.callPolicy().maxRetries());
+        FetchOptions batchOptions = options.withoutDeadline();
+        MicroBatcher<String, AggregatedResult> batcher;
+        batchersLock.lock();
+        try {
+            batcher = batchers.computeIfAbsent(group, g -> new MicroBatcher<>(batching.maxBatchSize(),
+                    batching.maxWait(), executor.withoutRequestContext(),
+                    ids -> executeBatch(ids, delayMs, threadType, batchOptions)));
+        } finally {
+            batchersLock.unlock();
+        }
+        return withinDeadline(batcher.submit(extractApiId(apiUrl)), options);
+    }
+
+    private Map<String, AggregatedResult> executeBatch(List<String> ids, int delayMs, String threadType,
+                                                       FetchOptions options) throws InterruptedException {
+        long startTime = System.nanoTime();
+        MockApiClient client = clients.get(options.clientType());
+        String batchUrl = buildBatchUrl(ids, delayMs, options);
+        boolean logCall = sampleCallLog();
+        if (logCall) {
+            logger.info("Starting {} thread batch request for {} ids with delay {}ms", threadType, ids.size(),
+                    delayMs);
+        }
+
+        List<MockApiResponse> responses;
+        try {
+            if (options.callPolicy().isActive()) {
+                // Hedged or retried as a whole, like a single call
+                responses = resilientCaller.call(latencyKey(delayMs, options) + ":batch", options.callPolicy(),
+                        () -> batchOnce(batchUrl, client, threadType));
+            } else {
+                responses = batchOnce(batchUrl, client, threadType);
             }
-        }, platformThreadPool);
+        } catch (RuntimeException e) {
+            logger.error("Error making batch request to {}: {}", batchUrl, e.getMessage());
+            throw e;
+        }
+
+        Map<String, AggregatedResult> results = new HashMap<>();
+        for (MockApiResponse response : responses) {
+            String fullUrl = buildUrl("/mock-api/" + response.id(), delayMs, options);
+            results.put(response.id(), enhance(fullUrl, response, delayMs, options, client));
+        }
+
+        if (logCall) {
+            logger.info("Completed {} thread batch request for {} ids in {}ms", threadType, ids.size(),
+                    (System.nanoTime() - startTime) / 1_000_000);
+        }
+        return results;
     }
 
-    // Method using virtual threads
-    public CompletableFuture<Map<String, Object>> fetchDataWithVirtualThreads(String apiUrl, int delayMs) {
+    // The whole batch is one outbound call, so it takes one slot
+    private List<MockApiResponse> batchOnce(String batchUrl, MockApiClient client, String threadType)
+            throws InterruptedException {
+        CallSlot slot = acquireSlot(threadType);
+        List<MockApiResponse> responses;
+        try {
+            responses = client.getBatch(batchUrl);
+        } catch (RuntimeException e) {
+            slot.release(e);
+            throw e;
+        }
+        slot.release(null);
+        return responses;
+    }
+
+    private AggregatedResult executeRequest(String apiUrl, int delayMs, String threadType, FetchOptions options,
+                                            MockApiClient client) {
+        checkRequestActive();
+        String fullUrl = buildUrl(apiUrl, delayMs, options);
+        return enhance(fullUrl, fetchResponse(fullUrl, delayMs, threadType, options, client), delayMs, options,
+                client);
+    }
+
+    private MockApiResponse fetchResponse(String fullUrl, int delayMs, String threadType, FetchOptions options,
+                                          MockApiClient client) {
+        long startTime = System.nanoTime();
+        boolean logCall = sampleCallLog();
+        if (logCall) {
+            logger.info("Starting {} thread request to {} with delay {}ms", threadType, fullUrl, delayMs);
+        }
+
+        try {
+            MockApiResponse response;
+            if (options.callPolicy().isActive()) {
+                // Attempts run on their own virtual threads; this thread waits for the first success
+                response = resilientCaller.call(latencyKey(delayMs, options), options.callPolicy(),
+                        () -> callOnce(fullUrl, client, threadType));
+            } else {
+                response = callOnce(fullUrl, client, threadType);
+            }
+
+            if (logCall) {
+                logger.info("Completed {} thread request to {} in {}ms", threadType, fullUrl,
+                        (System.nanoTime() - startTime) / 1_000_000);
+            }
+
+            return response;
+        } catch (ConcurrencyLimitExceededException e) {
+            logger.warn("Shed request to {}: {}", fullUrl, e.getMessage());
+            throw e;
+        } catch (CallTimeoutException e) {
+            logger.warn("Request to {} timed out: {}", fullUrl, e.getMessage());
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a connection permit to " + baseHost, e);
+        } catch (Exception e) {
+            logger.error("Error making request to {}: {}", fullUrl, e.getMessage());
+            throw new RuntimeException("Request failed", e);
+        }
+    }
+
+    // One attempt: admission, then the HTTP request to our mock service
+    private MockApiResponse callOnce(String fullUrl, MockApiClient client, String threadType)
+            throws InterruptedException {
+        CallSlot slot = acquireSlot(threadType);
+        long startTime = System.nanoTime();
+        MockApiResponse response;
+        try {
+            response = client.get(fullUrl);
+        } catch (RuntimeException e) {
+            slot.release(e);
+            throw e;
+        }
+        metrics.recordSince(Stage.CLIENT, threadType, startTime);
+        slot.release(null);
+        return response;
+    }
+
+    // Per-call lines are sampled: at high fan-out, formatting two lines for every call costs real CPU.
+    // With DEBUG enabled for this class every call is logged.
+    private boolean sampleCallLog() {
+        return logger.isDebugEnabled()
+                || (callLogSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < callLogSampleRate);
+    }
+
+    // Calls that share a latency distribution, and therefore a hedge delay
+    private static String latencyKey(int delayMs, FetchOptions options) {
+        return options.clientType() + ":" + delayMs + ":" + options.scenario();
+    }
+
+    // The executor thread only waits for admission; the call itself holds no thread
+    private CompletableFuture<AggregatedResult> executeNonBlocking(String apiUrl, int delayMs, String threadType,
+                                                                  FetchOptions options, MockApiClient client,
+                                                                  Executor executor) {
+        String fullUrl = buildUrl(apiUrl, delayMs, options);
+        boolean logCall = sampleCallLog();
+        if (logCall) {
+            logger.info("Starting non-blocking {} request to {} with delay {}ms", threadType, fullUrl, delayMs);
+        }
+
+        long submittedAt = System.nanoTime();
         return CompletableFuture.supplyAsync(() -> {
-            long startTime = System.currentTimeMillis();
-            String fullUrl = baseUrl + "/mock-api/" + extractApiId(apiUrl) + "?delayMs=" + delayMs;
-            logger.info("Starting virtual thread request to {} with delay {}ms", fullUrl, delayMs);
-
-            try {
-                // Make actual HTTP request to our mock service
-                Map<String, Object> response = webClient.get()
-                        .uri(fullUrl)
-                        .retrieve()
-                        .bodyToMono(Map.class)
-                        .block();
-
-                // Add additional thread info
-                Map<String, Object> enhancedResponse = Map.of(
-                        "url", fullUrl,
-                        "data", response,
-                        "threadInfo", Thread.currentThread().toString(),
-                        "isVirtual", Thread.currentThread().isVirtual(),
-                        "delay", delayMs
-                );
-
-                long endTime = System.currentTimeMillis();
-                logger.info("Completed virtual thread request to {} in {}ms", fullUrl, (endTime - startTime));
-
-                return enhancedResponse;
-            } catch (Exception e) {
-                logger.error("Error making request to {}: {}", fullUrl, e.getMessage());
-                throw new RuntimeException("Request failed", e);
+                    metrics.recordSince(Stage.QUEUE, threadType, submittedAt);
+                    checkRequestActive();
+                    return acquireSlotUninterruptibly(threadType);
+                }, executor)
+                .thenCompose(slot -> {
+                    long startTime = System.nanoTime();
+                    CompletableFuture<MockApiResponse> call;
+                    try {
+                        call = client.getAsync(fullUrl);
+                    } catch (RuntimeException e) {
+                        // Thrown before any request was made (an invalid URI, say); still release the slot below
+                        call = CompletableFuture.failedFuture(e);
+                    }
+                    return call
+                            .whenComplete((response, error) -> {
+                                slot.release(error);
+                                if (error != null) {
+                                    logger.error("Error making request to {}: {}", fullUrl, error.getMessage());
+                                    return;
+                                }
+                                metrics.recordSince(Stage.CLIENT, threadType, startTime);
+                                if (logCall) {
+                                    logger.info("Completed non-blocking {} request to {} in {}ms", threadType,
+                                            fullUrl, (System.nanoTime() - startTime) / 1_000_000);
+                                }
+                            });
+                })
+                .thenApply(response -> enhance(fullUrl, response, delayMs, options, client));
+    }
+
+    // Admission for one outbound call: the adaptive limit first, then the hard per-host cap
+    private CallSlot acquireSlot(String threadType) throws InterruptedException {
+        long startTime = System.nanoTime();
+        AdaptiveConcurrencyLimiter.Token token = adaptiveLimiter != null ? adaptiveLimiter.acquire() : null;
+        try {
+            CallSlot slot = new CallSlot(token, hostConcurrencyLimiter.acquire(baseHost));
+            metrics.recordSince(Stage.ADMISSION, threadType, startTime);
+            return slot;
+        } catch (InterruptedException | RuntimeException e) {
+            if (token != null) {
+                token.onIgnore();
+            }
+            throw e;
+        }
+    }
+
+    private CallSlot acquireSlotUninterruptibly(String threadType) {
+        try {
+            return acquireSlot(threadType);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a connection permit to " + baseHost, e);
+        }
+    }
+
+    private record CallSlot(AdaptiveConcurrencyLimiter.Token token, HostConcurrencyLimiter.Permit permit) {
+
+        // Feeds the outcome back to the adaptive limiter; local interruption says nothing about the downstream
+        void release(Throwable error) {
+            permit.close();
+            if (token == null) {
+                return;
+            }
+            if (error == null) {
+                token.onSuccess();
+            } else if (Thread.currentThread().isInterrupted()) {
+                token.onIgnore();
+            } else {
+                token.onDropped();
             }
-        }, Executors.newVirtualThreadPerTaskExecutor());
+        }
+    }
+
+    // Add additional thread info
+    AggregatedResult enhance(String fullUrl, MockApiResponse response, int delayMs, FetchOptions options,
+                             MockApiClient client) {
+        Thread current = Thread.currentThread();
+        return new AggregatedResult(
+                fullUrl,
+                response,
+                options.includeThreadInfo() ? current.toString() : null,
+                current.isVirtual(),
+                delayMs,
+                client.type().name());
+    }
+
+    String buildUrl(String apiUrl, int delayMs, FetchOptions options) {
+        // Also the cache key, so bodies with and without threadInfo or from different scenarios are never mixed
+        return withOptions(baseUrl + "/mock-api/" + extractApiId(apiUrl) + "?delayMs=" + delayMs, options);
+    }
+
+    String buildBatchUrl(List<String> ids, int delayMs, FetchOptions options) {
+        return withOptions(baseUrl + "/mock-api/batch?ids=" + String.join(",", ids) + "&delayMs=" + delayMs, options);
+    }
+
+    private static String withOptions(String url, FetchOptions options) {
+        if (!options.includeThreadInfo()) {
+            url += "&threadInfo=false";
+        }
+        if (options.scenario() != null) {
+            url += "&scenario=" + URLEncoder.encode(options.scenario(), StandardCharsets.UTF_8);
+        }
+        return url;
+    }
+
+    // Totals across all batchers, evicted ones included, for the fanout.batch.* meters
+    public long batchedRequests() {
+        return batchTotal(MicroBatcher::requests, retiredBatchedRequests);
+    }
+
+    public long batchCalls() {
+        return batchTotal(MicroBatcher::batches, retiredBatchCalls);
+    }
+
+    public long batchedIds() {
+        return batchTotal(MicroBatcher::keys, retiredBatchedIds);
+    }
+
+    private long batchTotal(ToLongFunction<MicroBatcher<String, AggregatedResult>> count, LongAdder retired) {
+        batchersLock.lock();
+        try {
+            return retired.sum() + batchers.values().stream().mapToLong(count).sum();
+        } finally {
+            batchersLock.unlock();
+        }
+    }
+
+    private record BatchGroup(String threadType, HttpClientType clientType, int delayMs, boolean includeThreadInfo,
+                              String scenario, boolean hedge, int maxRetries) {
     }
 
     // Helper method to extract API ID from the URL
-    private String extractApiId(String apiUrl) {
+    static String extractApiId(String apiUrl) {
         // Extract the last part of the URL as the ID
         String[] parts = apiUrl.split("/");
         return parts[parts.length - 1];
     }
-}
\ No newline at end of file
+}
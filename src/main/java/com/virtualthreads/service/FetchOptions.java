@@ -0,0 +1,26 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.resilience.CallPolicy;
+
+// Per-request knobs for how ExternalApiService performs a call
+public record FetchOptions(HttpClientType clientType, boolean useCache, boolean includeThreadInfo, boolean batch,
+                           // Named downstream simulator scenario forwarded to the mock API; null for plain delays
+                           String scenario,
+                           CallPolicy callPolicy) {
+
+    public static FetchOptions defaults() {
+        return new FetchOptions(HttpClientType.WEBCLIENT_BLOCKING, false, true, false, null, CallPolicy.NONE);
+    }
+
+    public FetchOptions withDeadline(long deadlineNanos) {
+        return new FetchOptions(clientType, useCache, includeThreadInfo, batch, scenario,
+                callPolicy.withDeadline(deadlineNanos));
+    }
+
+    // Same hedging and retries with no deadline, for a call shared by several requests
+    public FetchOptions withoutDeadline() {
+        return new FetchOptions(clientType, useCache, includeThreadInfo, batch, scenario,
+                new CallPolicy(callPolicy.hedge(), callPolicy.maxRetries(), 0));
+    }
+}
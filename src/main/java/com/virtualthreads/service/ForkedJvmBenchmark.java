@@ -0,0 +1,251 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.VirtualThreadsApplication;
+import com.virtualthreads.results.SeriesResult;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Benchmarks this application in a forked JVM: a fresh instance is started with the given JVM
+ * flags and application arguments, warmed up, and driven with closed-model load from this JVM.
+ * The fork's CPU time is read from the OS, so it covers only the instance under test: the load
+ * generator and the mock API it calls stay in this JVM.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ForkedJvmBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ForkedJvmBenchmark.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final LoadTestService loadTestService;
+    private final String downstreamUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    public ForkedJvmBenchmark(LoadTestService loadTestService,
+                              @Value("${app.mock-api.base-url:http://localhost:${server.port:8080}}") String downstreamUrl) {
+        this.loadTestService = loadTestService;
+        this.downstreamUrl = downstreamUrl;
+    }
+
+    // The same load applied to every fork; activeProcessorCount emulates a container CPU limit
+    public record Workload(int concurrentUsers, int apiCount, int delayMs, int rounds, int warmupRounds,
+                           Integer activeProcessorCount) {
+
+        public Workload {
+            if (concurrentUsers <= 0 || apiCount <= 0 || delayMs <= 0 || rounds <= 0 || warmupRounds < 0) {
+                throw new IllegalArgumentException("concurrentUsers, apiCount, delayMs and rounds must be positive");
+            }
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("concurrentUsers", concurrentUsers);
+            map.put("apiCount", apiCount);
+            map.put("delayMs", delayMs);
+            map.put("rounds", rounds);
+            map.put("warmupRounds", warmupRounds);
+            map.put("activeProcessorCount", activeProcessorCount);
+            return map;
+        }
+    }
+
+    public record Measurement(Map<String, Object> report, SeriesResult series, double throughput) {
+    }
+
+    // Forks a JVM with the given JVM and application arguments, then warms it up and measures it
+    // driven through the aggregation endpoint for threadType; settings are echoed in the report
+    public Measurement measure(String name, String threadType, List<String> jvmArgs, List<String> appArgs,
+                               Map<String, Object> settings, Workload workload) {
+        checkNotCancelled(name);
+        List<String> forkArgs = new ArrayList<>(jvmArgs);
+        if (workload.activeProcessorCount() != null) {
+            forkArgs.add("-XX:ActiveProcessorCount=" + workload.activeProcessorCount());
+        }
+        return withFork(name, forkArgs, appArgs, (fork, instanceUrl) -> {
+            for (int i = 0; i < workload.warmupRounds(); i++) {
+                loadTestService.runClosedModel(instanceUrl, threadType, workload.concurrentUsers(),
+                        workload.apiCount(), workload.delayMs());
+            }
+
+            Histogram latency = new Histogram(3);
+            List<Double> throughputSamples = new ArrayList<>();
+            long failed = 0;
+            Optional<Duration> cpuBefore = fork.info().totalCpuDuration();
+            long start = System.nanoTime();
+            for (int i = 0; i < workload.rounds(); i++) {
+                LoadTestService.ClosedModelRun round = loadTestService.runClosedModel(instanceUrl, threadType,
+                        workload.concurrentUsers(), workload.apiCount(), workload.delayMs());
+                latency.add(round.latency());
+                failed += round.failed();
+                throughputSamples.add((double) round.results().get("throughput"));
+            }
+            long wallNanos = System.nanoTime() - start;
+            Optional<Duration> cpuAfter = fork.info().totalCpuDuration();
+
+            double throughput = throughputSamples.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            long requests = latency.getTotalCount();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("name", name);
+            report.put("threadType", threadType);
+            report.put("settings", settings);
+            report.put("jvmArgs", forkArgs);
+            report.put("throughput", throughput);
+            report.put("throughputSamples", throughputSamples);
+            report.put("requests", requests);
+            report.put("failedRequests", failed);
+            report.put("latencyMs", OpenModelRun.percentiles(latency));
+            if (cpuBefore.isPresent() && cpuAfter.isPresent()) {
+                double cpuSeconds = cpuAfter.get().minus(cpuBefore.get()).toNanos() / 1_000_000_000.0;
+                double cpuCores = cpuSeconds / (wallNanos / 1_000_000_000.0);
+                report.put("cpuSeconds", cpuSeconds);
+                // Average cores busy while under load: the figure to size a container's CPU limit by
+                report.put("cpuCores", cpuCores);
+                report.put("cpuMsPerRequest", requests == 0 ? 0 : cpuSeconds * 1000 / requests);
+                report.put("throughputPerCore", cpuCores == 0 ? 0 : throughput / cpuCores);
+            } else {
+                logger.warn("CPU time of forked JVM {} is not available on this platform", fork.pid());
+            }
+            logger.info("{}: {} req/s, {} failed", name, String.format("%.1f", throughput), failed);
+
+            SeriesResult series = SeriesResult.of(latency, failed, throughput, throughputSamples);
+            return new Measurement(report, series, throughput);
+        });
+    }
+
+    // Starts a fork, waits until it is healthy, applies body to it and its base URL, and stops it
+    public <T> T withFork(String name, List<String> jvmArgs, List<String> appArgs,
+                          BiFunction<Process, String, T> body) {
+        int port = freePort();
+        Path log = createLog(name);
+        logger.info("Forking JVM for {} on port {} with {} {} (log: {})", name, port, jvmArgs, appArgs, log);
+        Process fork = startFork(port, jvmArgs, appArgs, log);
+        try {
+            String instanceUrl = "http://localhost:" + port;
+            awaitReady(fork, instanceUrl, log);
+            return body.apply(fork, instanceUrl);
+        } finally {
+            stop(fork);
+        }
+    }
+
+    // The fork runs this same application from this JVM's class path, without its run history
+    private Process startFork(int port, List<String> jvmArgs, List<String> appArgs, Path log) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("--enable-preview");
+        command.add("-Dspring.devtools.restart.enabled=false");
+        command.addAll(jvmArgs);
+        String classPath = System.getProperty("java.class.path");
+        if (classPath.endsWith(".jar") && !classPath.contains(File.pathSeparator)) {
+            // Started with java -jar: the boot jar needs its own launcher
+            command.add("-jar");
+            command.add(classPath);
+        } else {
+            command.add("-cp");
+            command.add(classPath);
+            command.add(VirtualThreadsApplication.class.getName());
+        }
+        command.add("--server.port=" + port);
+        command.add("--app.mock-api.base-url=" + downstreamUrl);
+        command.add("--app.results.enabled=false");
+        command.addAll(appArgs);
+        try {
+            return new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not fork JVM", e);
+        }
+    }
+
+    private void awaitReady(Process fork, String instanceUrl, Path log) {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(instanceUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!fork.isAlive()) {
+                    throw new IllegalStateException("Forked JVM exited with code " + fork.exitValue() + ", see " + log);
+                }
+                try {
+                    if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(250);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Benchmark cancelled while a fork was starting");
+        }
+        throw new IllegalStateException("Forked JVM did not become healthy within "
+                + STARTUP_TIMEOUT.toSeconds() + "s, see " + log);
+    }
+
+    private static void stop(Process fork) {
+        fork.destroy();
+        try {
+            if (!fork.waitFor(15, TimeUnit.SECONDS)) {
+                fork.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            fork.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not find a free port", e);
+        }
+    }
+
+    private static Path createLog(String name) {
+        try {
+            return Files.createTempFile("forked-" + name + "-", ".log");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create fork log", e);
+        }
+    }
+
+    // A closed-model round always runs to completion, so a cancelled job stops before the next fork
+    static void checkNotCancelled(String next) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Benchmark cancelled before " + next);
+        }
+    }
+}
\ No newline at end of file
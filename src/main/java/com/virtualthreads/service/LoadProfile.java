@@ -0,0 +1,75 @@
+package com.virtualthreads.service;
+
+import java.time.Duration;
+
+/**
+ * Open-model arrival schedule: the rate ramps linearly from zero to {@code targetRps},
+ * holds for the steady-state phase and ramps back down to zero. Arrival times are
+ * derived from the integral of the rate, so they do not depend on how fast the
+ * system under test responds.
+ */
+public record LoadProfile(int targetRps, Duration rampUp, Duration steadyState, Duration coolDown, int maxInFlight) {
+
+    public LoadProfile {
+        if (targetRps <= 0) {
+            throw new IllegalArgumentException("targetRps must be positive");
+        }
+        if (rampUp.isNegative() || steadyState.isNegative() || coolDown.isNegative()) {
+            throw new IllegalArgumentException("Phase durations must not be negative");
+        }
+    }
+
+    public Duration totalDuration() {
+        return rampUp.plus(steadyState).plus(coolDown);
+    }
+
+    public long expectedRequests() {
+        return (long) Math.floor(rampRequests() + targetRps * seconds(steadyState) + coolDownRequests());
+    }
+
+    // Offset from the start of the run at which request n is due, or -1 once the schedule is over
+    public long arrivalOffsetNanos(long n) {
+        double ramp = seconds(rampUp);
+        double steady = seconds(steadyState);
+        double cool = seconds(coolDown);
+        double rampRequests = rampRequests();
+        double steadyRequests = targetRps * steady;
+
+        double offsetSeconds;
+        if (n < rampRequests) {
+            // n = rps * t^2 / (2 * ramp)
+            offsetSeconds = Math.sqrt(2 * ramp * n / targetRps);
+        } else if (n < rampRequests + steadyRequests) {
+            offsetSeconds = ramp + (n - rampRequests) / targetRps;
+        } else if (n < rampRequests + steadyRequests + coolDownRequests()) {
+            // m = rps * (u - u^2 / (2 * cool)), solved for the smaller root u
+            double m = n - rampRequests - steadyRequests;
+            offsetSeconds = ramp + steady + cool - Math.sqrt(Math.max(0, cool * cool - 2 * cool * m / targetRps));
+        } else {
+            return -1;
+        }
+        return (long) (offsetSeconds * 1_000_000_000L);
+    }
+
+    public String phaseAt(long offsetNanos) {
+        if (offsetNanos < rampUp.toNanos()) {
+            return "ramp-up";
+        }
+        if (offsetNanos < rampUp.plus(steadyState).toNanos()) {
+            return "steady-state";
+        }
+        return "cool-down";
+    }
+
+    private double rampRequests() {
+        return targetRps * seconds(rampUp) / 2;
+    }
+
+    private double coolDownRequests() {
+        return targetRps * seconds(coolDown) / 2;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+}
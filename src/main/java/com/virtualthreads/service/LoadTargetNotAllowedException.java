@@ -0,0 +1,13 @@
+package com.virtualthreads.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A targetUrl or worker that is not in the app.load-test configuration
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class LoadTargetNotAllowedException extends RuntimeException {
+
+    public LoadTargetNotAllowedException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -1,47 +1,95 @@
 package com.virtualthreads.service;
 
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.config.LoadTestProperties;
+import com.virtualthreads.results.RunStore;
+import com.virtualthreads.results.SeriesResult;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
+// Servlet stack only, as RestTemplateBuilder is not configured in a reactive application; an
+// instance running the webflux profile is load tested from another instance
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class LoadTestService {
     private static final Logger logger = LoggerFactory.getLogger(LoadTestService.class);
     
     private final RestTemplate restTemplate;
+    private final ManagedExecutors executors;
+    private final OpenModelLoadGenerator openModelLoadGenerator;
+    private final String targetUrl;
+    private final Optional<RunStore> runStore;
     
-    public LoadTestService(RestTemplateBuilder restTemplateBuilder) {
+    public LoadTestService(RestTemplateBuilder restTemplateBuilder, ManagedExecutors executors,
+                           OpenModelLoadGenerator openModelLoadGenerator, LoadTestProperties properties,
+                           Optional<RunStore> runStore) {
         this.restTemplate = restTemplateBuilder
                 .setConnectTimeout(Duration.ofSeconds(5))
                 .setReadTimeout(Duration.ofSeconds(30))
                 .build();
+        this.executors = executors;
+        this.openModelLoadGenerator = openModelLoadGenerator;
+        this.targetUrl = properties.targetUrl();
+        this.runStore = runStore;
     }
     
     public Map<String, Object> runPlatformThreadsLoadTest(int concurrentUsers, int apiCount, int delayMs) {
-        String url = String.format("http://localhost:8080/api/platform-threads?apiCount=%d&delayMs=%d", apiCount, delayMs);
-        return runLoadTest("Platform Threads", url, concurrentUsers, Executors.newFixedThreadPool(200));
+        return runPlatformThreadsLoadTest(concurrentUsers, apiCount, delayMs, false);
+    }
+
+    public Map<String, Object> runPlatformThreadsLoadTest(int concurrentUsers, int apiCount, int delayMs, boolean cache) {
+        String url = targetUrl + aggregationPath("platform", apiCount, delayMs, cache);
+        return runLoadTest("Platform Threads", url, concurrentUsers, executors.loadTestPlatformExecutor()).results();
     }
     
     public Map<String, Object> runVirtualThreadsLoadTest(int concurrentUsers, int apiCount, int delayMs) {
-        String url = String.format("http://localhost:8080/api/virtual-threads?apiCount=%d&delayMs=%d", apiCount, delayMs);
-        return runLoadTest("Virtual Threads", url, concurrentUsers, Executors.newVirtualThreadPerTaskExecutor());
+        return runVirtualThreadsLoadTest(concurrentUsers, apiCount, delayMs, false);
+    }
+
+    public Map<String, Object> runVirtualThreadsLoadTest(int concurrentUsers, int apiCount, int delayMs, boolean cache) {
+        String url = targetUrl + aggregationPath("virtual", apiCount, delayMs, cache);
+        return runLoadTest("Virtual Threads", url, concurrentUsers, executors.loadTestVirtualExecutor()).results();
+    }
+
+    // The response map plus the latency histogram behind it, for the run store
+    record ClosedModelRun(Map<String, Object> results, Histogram latency, long failed) {
+
+        SeriesResult series() {
+            double throughput = (double) results.get("throughput");
+            return SeriesResult.of(latency, failed, throughput, List.of(throughput));
+        }
     }
     
+    // Closed-model run against another instance's aggregation endpoint, e.g. a forked JVM under test.
+    // The users are always virtual threads here, so only the instance under test varies.
+    ClosedModelRun runClosedModel(String instanceUrl, String threadType, int concurrentUsers, int apiCount,
+                                  int delayMs) {
+        return runLoadTest(testName(threadType), instanceUrl + aggregationPath(threadType, apiCount, delayMs, false),
+                concurrentUsers, executors.loadTestVirtualExecutor());
+    }
+
     @SuppressWarnings("unchecked")
-    private Map<String, Object> runLoadTest(String testName, String url, int concurrentUsers, ExecutorService executor) {
+    private ClosedModelRun runLoadTest(String testName, String url, int concurrentUsers, Executor executor) {
         logger.info("Starting load test: {}, URL: {}, Concurrent Users: {}", testName, url, concurrentUsers);
         
         long startTime = System.currentTimeMillis();
@@ -65,6 +113,7 @@ public class LoadTestService {
         
         // Calculate statistics
         List<Long> responseTimes = new ArrayList<>();
+        Histogram latency = new Histogram(3);
         int failedRequests = 0;
         
         for (CompletableFuture<Long> future : futures) {
@@ -72,6 +121,7 @@ public class LoadTestService {
                 Long responseTime = future.get(1, TimeUnit.SECONDS);
                 if (responseTime > 0) {
                     responseTimes.add(responseTime);
+                    latency.recordValue(responseTime * 1_000_000);
                 } else {
                     failedRequests++;
                 }
@@ -85,17 +135,6 @@ public class LoadTestService {
         long maxResponseTime = responseTimes.stream().mapToLong(Long::longValue).max().orElse(0);
         long minResponseTime = responseTimes.stream().mapToLong(Long::longValue).min().orElse(0);
         
-        // Shutdown the executor
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-        
         logger.info("Load test completed: {}, Total time: {}ms", testName, totalTime);
         
         Map<String, Object> results = new HashMap<>();
@@ -108,13 +147,32 @@ public class LoadTestService {
         results.put("minResponseTimeMs", minResponseTime);
         results.put("maxResponseTimeMs", maxResponseTime);
         results.put("throughput", (concurrentUsers - failedRequests) * 1000.0 / totalTime);
+        results.put("latencyMs", OpenModelRun.percentiles(latency));
         
-        return results;
+        return new ClosedModelRun(results, latency, failedRequests);
     }
     
     public Map<String, Object> compareLoadTests(int concurrentUsers, int apiCount, int delayMs) {
-        Map<String, Object> platformResults = runPlatformThreadsLoadTest(concurrentUsers, apiCount, delayMs);
-        Map<String, Object> virtualResults = runVirtualThreadsLoadTest(concurrentUsers, apiCount, delayMs);
+        return compareLoadTests(concurrentUsers, apiCount, delayMs, false);
+    }
+
+    public Map<String, Object> compareLoadTests(int concurrentUsers, int apiCount, int delayMs, boolean cache) {
+        return compareLoadTests(concurrentUsers, apiCount, delayMs, cache, LoadTestListener.NONE);
+    }
+
+    public Map<String, Object> compareLoadTests(int concurrentUsers, int apiCount, int delayMs, boolean cache,
+                                                LoadTestListener listener) {
+        ClosedModelRun platformRun = runLoadTest("Platform Threads",
+                targetUrl + aggregationPath("platform", apiCount, delayMs, cache), concurrentUsers,
+                executors.loadTestPlatformExecutor());
+        Map<String, Object> platformResults = platformRun.results();
+        listener.onRun("platform", platformResults);
+        checkNotCancelled("platform");
+        ClosedModelRun virtualRun = runLoadTest("Virtual Threads",
+                targetUrl + aggregationPath("virtual", apiCount, delayMs, cache), concurrentUsers,
+                executors.loadTestVirtualExecutor());
+        Map<String, Object> virtualResults = virtualRun.results();
+        listener.onRun("virtual", virtualResults);
         
         Map<String, Object> comparison = new HashMap<>();
         comparison.put("platformThreadsResults", platformResults);
@@ -124,7 +182,180 @@ public class LoadTestService {
         comparison.put("throughputImprovementPercentage", 
             100.0 * ((double)virtualResults.get("throughput") - (double)platformResults.get("throughput")) / 
             (double)platformResults.get("throughput"));
+        recordRun("load-test-compare", Map.of("targetUrl", targetUrl, "concurrentUsers", concurrentUsers,
+                        "apiCount", apiCount, "delayMs", delayMs, "cache", cache),
+                platformRun.series(), virtualRun.series(), comparison);
             
         return comparison;
     }
+
+    // Open-model variant: drives a constant arrival rate instead of a single burst of concurrent users
+    public Map<String, Object> runOpenModelLoadTest(String threadType, int apiCount, int delayMs, boolean cache,
+                                                    LoadProfile profile) {
+        return runOpenModelLoadTest(threadType, apiCount, delayMs, cache, profile, LoadTestListener.NONE);
+    }
+
+    public Map<String, Object> runOpenModelLoadTest(String threadType, int apiCount, int delayMs, boolean cache,
+                                                    LoadProfile profile, LoadTestListener listener) {
+        Map<String, Object> results = runOpenModel(threadType, apiCount, delayMs, cache, profile, listener).toMap();
+        listener.onRun(threadType, results);
+        return results;
+    }
+
+    private OpenModelRun runOpenModel(String threadType, int apiCount, int delayMs, boolean cache,
+                                      LoadProfile profile, LoadTestListener listener) {
+        String url = targetUrl + aggregationPath(threadType, apiCount, delayMs, cache);
+        return openModelLoadGenerator.run(testName(threadType), url, profile,
+                interval -> listener.onInterval(threadType, interval));
+    }
+
+    // An interrupted open-model run ends early and still returns what it measured, and a closed-model
+    // run waits out its requests, so a cancelled comparison is stopped between its two runs
+    private static void checkNotCancelled(String completedRun) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Load test cancelled after the " + completedRun + " run");
+        }
+    }
+
+    // Observes a load test as it runs: each finished run (one per thread type) and, for open-model
+    // runs, each sampled interval. Both are called on the threads running the test.
+    public interface LoadTestListener {
+        LoadTestListener NONE = new LoadTestListener() {
+        };
+
+        default void onRun(String threadType, Map<String, Object> results) {
+        }
+
+        default void onInterval(String threadType, OpenModelInterval interval) {
+        }
+    }
+
+    static String testName(String threadType) {
+        return switch (threadType) {
+            case "platform" -> "Platform Threads";
+            case "reactive" -> "Reactive";
+            default -> "Virtual Threads";
+        };
+    }
+
+    // Path of the aggregation endpoint a load test drives, relative to the target URL
+    static String aggregationPath(String threadType, int apiCount, int delayMs, boolean cache) {
+        String endpoint = switch (threadType) {
+            case "platform" -> "platform-threads";
+            case "reactive" -> "reactive";
+            default -> "virtual-threads";
+        };
+        return String.format("/api/%s?apiCount=%d&delayMs=%d&cache=%b", endpoint, apiCount, delayMs, cache);
+    }
+
+    // Runs this node's slice of a distributed open-model test. Each sampled interval is handed to the
+    // sink with its histograms encoded, followed by one summary line; if the sink fails (the
+    // coordinator went away) the slice stops early.
+    public void runWorkerSlice(String workerId, String sliceUrl, LoadProfile profile, WorkerSink sink)
+            throws IOException {
+        Thread runner = Thread.currentThread();
+        AtomicReference<IOException> sinkFailure = new AtomicReference<>();
+        OpenModelRun run = openModelLoadGenerator.run("Worker " + workerId, sliceUrl, profile, interval -> {
+            if (sinkFailure.get() != null) {
+                return;
+            }
+            try {
+                sink.accept(intervalLine(workerId, interval));
+            } catch (IOException e) {
+                sinkFailure.set(e);
+                runner.interrupt();
+            }
+        });
+        if (sinkFailure.get() != null) {
+            Thread.interrupted();
+            throw sinkFailure.get();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("worker", workerId);
+        summary.put("targetRps", profile.targetRps());
+        summary.put("sent", run.sent());
+        summary.put("succeeded", run.succeeded());
+        summary.put("failed", run.failed());
+        summary.put("dropped", run.dropped());
+        summary.put("durationNanos", run.durationNanos());
+        sink.accept(summary);
+    }
+
+    private static Map<String, Object> intervalLine(String workerId, OpenModelInterval interval) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "interval");
+        line.put("worker", workerId);
+        line.put("offsetNanos", interval.offsetNanos());
+        line.put("intervalNanos", interval.intervalNanos());
+        line.put("phase", interval.phase());
+        line.put("failed", interval.failed());
+        line.put("inFlight", interval.inFlight());
+        line.put("latency", HistogramCodec.encode(interval.latency()));
+        line.put("serviceTime", HistogramCodec.encode(interval.serviceTime()));
+        return line;
+    }
+
+    // Receives a worker's NDJSON lines; blocking here slows only the sampler, not the load
+    @FunctionalInterface
+    public interface WorkerSink {
+        void accept(Map<String, Object> line) throws IOException;
+    }
+
+    public Map<String, Object> compareOpenModelLoadTests(int apiCount, int delayMs, boolean cache, LoadProfile profile) {
+        return compareOpenModelLoadTests(apiCount, delayMs, cache, profile, LoadTestListener.NONE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> compareOpenModelLoadTests(int apiCount, int delayMs, boolean cache, LoadProfile profile,
+                                                         LoadTestListener listener) {
+        OpenModelRun platformRun = runOpenModel("platform", apiCount, delayMs, cache, profile, listener);
+        Map<String, Object> platformResults = platformRun.toMap();
+        listener.onRun("platform", platformResults);
+        checkNotCancelled("platform");
+        OpenModelRun virtualRun = runOpenModel("virtual", apiCount, delayMs, cache, profile, listener);
+        Map<String, Object> virtualResults = virtualRun.toMap();
+        listener.onRun("virtual", virtualResults);
+        checkNotCancelled("virtual");
+
+        double platformP99 = (double) ((Map<String, Object>) platformResults.get("latencyMs")).get("p99");
+        double virtualP99 = (double) ((Map<String, Object>) virtualResults.get("latencyMs")).get("p99");
+
+        Map<String, Object> comparison = new HashMap<>();
+        comparison.put("platformThreadsResults", platformResults);
+        comparison.put("virtualThreadsResults", virtualResults);
+        comparison.put("throughputImprovement",
+            (double)virtualResults.get("throughput") - (double)platformResults.get("throughput"));
+        comparison.put("p99ImprovementMs", platformP99 - virtualP99);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("targetUrl", targetUrl);
+        parameters.put("targetRps", profile.targetRps());
+        parameters.put("rampUpSec", profile.rampUp().toSeconds());
+        parameters.put("steadyStateSec", profile.steadyState().toSeconds());
+        parameters.put("coolDownSec", profile.coolDown().toSeconds());
+        parameters.put("maxInFlight", profile.maxInFlight());
+        parameters.put("apiCount", apiCount);
+        parameters.put("delayMs", delayMs);
+        parameters.put("cache", cache);
+        recordRun("open-model-compare", parameters, openModelSeries(platformRun), openModelSeries(virtualRun),
+                comparison);
+        return comparison;
+    }
+
+    // Per-second steady-state throughput gives the significance test one sample per second
+    private static SeriesResult openModelSeries(OpenModelRun run) {
+        List<Double> samples = run.timeSeries().stream()
+                .filter(point -> "steady-state".equals(point.get("phase")))
+                .map(point -> (Double) point.get("throughput"))
+                .toList();
+        return SeriesResult.of(run.latency(), run.failed(), run.achievedThroughput(),
+                samples.isEmpty() ? List.of(run.achievedThroughput()) : samples);
+    }
+
+    private void recordRun(String kind, Map<String, Object> parameters, SeriesResult platform, SeriesResult virtual,
+                           Map<String, Object> comparison) {
+        runStore.map(store -> store.record(kind, parameters, Map.of("platform", platform, "virtual", virtual)))
+                .ifPresent(run -> comparison.put("runId", run.id()));
+    }
 }
\ No newline at end of file
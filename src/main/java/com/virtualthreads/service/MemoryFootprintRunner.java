@@ -0,0 +1,103 @@
+package com.virtualthreads.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runs the memory footprint probe for each thread model in its own forked JVM. A fork is needed
+ * because native memory tracking can only be switched on at JVM start, and because ramping
+ * platform threads until they cannot be created must not exhaust the JVM serving the job. An
+ * optional heap size makes the heap limit, and so the saturation point, that of the target pod.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MemoryFootprintRunner {
+
+    private final ForkedJvmBenchmark benchmark;
+    private final RestTemplate restTemplate;
+
+    public MemoryFootprintRunner(ForkedJvmBenchmark benchmark, RestTemplateBuilder restTemplateBuilder) {
+        this.benchmark = benchmark;
+        // A ramp to a million tasks with a full GC per level takes minutes
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofSeconds(5))
+                .readTimeout(Duration.ofMinutes(30))
+                .build();
+    }
+
+    public record Footprint(List<String> threadTypes, List<Integer> levels, int stackDepth, Integer heapMb,
+                            Long podMemoryMb, int maxPlatformThreads) {
+
+        public Footprint {
+            if (threadTypes == null || threadTypes.isEmpty()
+                    || threadTypes.stream().anyMatch(type -> !"platform".equals(type) && !"virtual".equals(type))) {
+                throw new IllegalArgumentException("threadTypes must be platform and/or virtual");
+            }
+            if (levels == null || levels.isEmpty() || levels.stream().anyMatch(level -> level <= 0)) {
+                throw new IllegalArgumentException("levels must be positive task counts");
+            }
+            if (maxPlatformThreads <= 0) {
+                throw new IllegalArgumentException("maxPlatformThreads must be positive");
+            }
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("threadTypes", threadTypes);
+            map.put("levels", levels);
+            map.put("stackDepth", stackDepth);
+            map.put("heapMb", heapMb);
+            map.put("podMemoryMb", podMemoryMb);
+            map.put("maxPlatformThreads", maxPlatformThreads);
+            return map;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> run(Footprint footprint, Consumer<Map<String, Object>> onStep) {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (String threadType : footprint.threadTypes()) {
+            ForkedJvmBenchmark.checkNotCancelled("footprint-" + threadType);
+            List<String> jvmArgs = new ArrayList<>();
+            jvmArgs.add("-XX:NativeMemoryTracking=summary");
+            if (footprint.heapMb() != null) {
+                jvmArgs.add("-Xmx" + footprint.heapMb() + "m");
+            }
+            List<String> appArgs = List.of("--app.footprint.max-platform-threads=" + footprint.maxPlatformThreads());
+
+            Map<String, Object> report = benchmark.withFork("footprint-" + threadType, jvmArgs, appArgs,
+                    (fork, instanceUrl) -> {
+                        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(instanceUrl)
+                                .path("/api/memory-footprint")
+                                .queryParam("threadType", threadType)
+                                .queryParam("levels", footprint.levels().toArray())
+                                .queryParam("stackDepth", footprint.stackDepth());
+                        if (footprint.podMemoryMb() != null) {
+                            uri.queryParam("podMemoryMb", footprint.podMemoryMb());
+                        }
+                        return (Map<String, Object>) restTemplate.getForObject(uri.toUriString(), Map.class);
+                    });
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("threadType", threadType);
+            step.put("jvmArgs", jvmArgs);
+            step.putAll(report);
+            steps.add(step);
+            onStep.accept(step);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("parameters", footprint.toMap());
+        result.put("results", steps);
+        return result;
+    }
+}
\ No newline at end of file
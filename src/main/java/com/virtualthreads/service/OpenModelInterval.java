@@ -0,0 +1,32 @@
+package com.virtualthreads.service;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One sampling interval of an open-model run, as drained from the recorders. The histograms
+ * hold only this interval's requests (nanoseconds), so intervals from several generators can
+ * be added together.
+ */
+public record OpenModelInterval(long offsetNanos, long intervalNanos, String phase, Histogram latency,
+                                Histogram serviceTime, long failed, int inFlight) {
+
+    public double throughput() {
+        return latency.getTotalCount() * 1_000_000_000.0 / Math.max(1, intervalNanos);
+    }
+
+    // One point of the run's time series
+    public Map<String, Object> toMap() {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("offsetSec", offsetNanos / 1_000_000_000.0);
+        point.put("phase", phase);
+        point.put("throughput", throughput());
+        point.put("failed", failed);
+        point.put("inFlight", inFlight);
+        point.put("p50Ms", latency.getValueAtPercentile(50) / 1_000_000.0);
+        point.put("p99Ms", latency.getValueAtPercentile(99) / 1_000_000.0);
+        return point;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.concurrent.ManagedExecutors;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Constant-arrival-rate load generator. Requests are issued on their schedule regardless
+ * of whether earlier ones have completed, each on its own virtual thread, and latency is
+ * measured from the time a request was due rather than the time it was sent. A stalled
+ * server therefore shows up as latency instead of silently lowering the offered load
+ * (coordinated omission).
+ */
+@Service
+public class OpenModelLoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(OpenModelLoadGenerator.class);
+
+    private static final long SAMPLE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ManagedExecutors executors;
+
+    public OpenModelLoadGenerator(HttpClient httpClient, ManagedExecutors executors) {
+        this.httpClient = httpClient;
+        this.executors = executors;
+    }
+
+    public OpenModelRun run(String testName, String targetUrl, LoadProfile profile) {
+        return run(testName, targetUrl, profile, interval -> {
+        });
+    }
+
+    // The listener sees every interval as it is sampled (once per second, plus a final partial one),
+    // on the sampler thread; interrupting the calling thread ends the run early
+    public OpenModelRun run(String testName, String targetUrl, LoadProfile profile,
+                            Consumer<OpenModelInterval> intervalListener) {
+        logger.info("Starting open-model load test: {}, URL: {}, target: {} rps for {}s",
+                testName, targetUrl, profile.targetRps(), profile.totalDuration().toSeconds());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(targetUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        Recorder latencyRecorder = new Recorder(3);
+        Recorder serviceTimeRecorder = new Recorder(3);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        long sent = 0;
+        long dropped = 0;
+
+        long startNanos = System.nanoTime();
+        IntervalSampler sampler = new IntervalSampler(profile, startNanos, latencyRecorder, serviceTimeRecorder,
+                failed, inFlight, intervalListener);
+        Thread samplerThread = Thread.ofVirtual().name("open-model-sampler").start(sampler);
+
+        for (long n = 0; ; n++) {
+            long offset = profile.arrivalOffsetNanos(n);
+            if (offset < 0 || !sleepUntil(startNanos + offset)) {
+                break;
+            }
+            long intendedStart = startNanos + offset;
+            // Shed rather than queue once the in-flight cap is hit, so the generator itself stays bounded
+            if (inFlight.get() >= profile.maxInFlight()) {
+                dropped++;
+                continue;
+            }
+            inFlight.incrementAndGet();
+            sent++;
+            executors.loadTestVirtualExecutor().execute(() -> {
+                long sendStart = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    long end = System.nanoTime();
+                    if (response.statusCode() < 400) {
+                        succeeded.incrementAndGet();
+                        latencyRecorder.recordValue(end - intendedStart);
+                        serviceTimeRecorder.recordValue(end - sendStart);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    failed.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        // Let outstanding requests finish; they still belong to this run
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            if (!sleepUntil(System.nanoTime() + Duration.ofMillis(10).toNanos())) {
+                break;
+            }
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+
+        sampler.stop();
+        samplerThread.interrupt();
+        try {
+            samplerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler.sample(durationNanos);
+
+        OpenModelRun run = new OpenModelRun(testName, targetUrl, profile, sampler.totalLatency,
+                sampler.totalServiceTime, sent, succeeded.get(), failed.get(), dropped, durationNanos,
+                sampler.timeSeries);
+        logger.info("Open-model load test completed: {}, throughput: {} rps, p99: {}ms", testName,
+                String.format("%.1f", run.achievedThroughput()), run.latency().getValueAtPercentile(99) / 1_000_000.0);
+        return run;
+    }
+
+    // Returns false if interrupted before the deadline
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Drains the recorders once per second into the run totals and a throughput/latency time series
+    private static final class IntervalSampler implements Runnable {
+        private final LoadProfile profile;
+        private final long startNanos;
+        private final Recorder latencyRecorder;
+        private final Recorder serviceTimeRecorder;
+        private final AtomicLong failed;
+        private final AtomicInteger inFlight;
+        private final Consumer<OpenModelInterval> listener;
+
+        private final Histogram totalLatency = new Histogram(3);
+        private final Histogram totalServiceTime = new Histogram(3);
+        private final List<Map<String, Object>> timeSeries = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean stopped;
+        private long lastSampleNanos;
+        private long lastFailed;
+
+        private IntervalSampler(LoadProfile profile, long startNanos, Recorder latencyRecorder,
+                                Recorder serviceTimeRecorder, AtomicLong failed, AtomicInteger inFlight,
+                                Consumer<OpenModelInterval> listener) {
+            this.profile = profile;
+            this.startNanos = startNanos;
+            this.latencyRecorder = latencyRecorder;
+            this.serviceTimeRecorder = serviceTimeRecorder;
+            this.failed = failed;
+            this.inFlight = inFlight;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            for (long k = 1; !stopped; k++) {
+                if (!sleepUntil(startNanos + k * SAMPLE_INTERVAL_NANOS) || stopped) {
+                    return;
+                }
+                sample(k * SAMPLE_INTERVAL_NANOS);
+            }
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        // Locked because the final sample can overlap a late periodic one if the run was interrupted. A
+        // ReentrantLock rather than synchronized, and the listener called after unlocking: it may write
+        // to a network stream, which must neither pin the sampler's carrier nor hold up the other sample
+        void sample(long offsetNanos) {
+            OpenModelInterval interval;
+            lock.lock();
+            try {
+                Histogram latency = latencyRecorder.getIntervalHistogram();
+                Histogram serviceTime = serviceTimeRecorder.getIntervalHistogram();
+                totalLatency.add(latency);
+                totalServiceTime.add(serviceTime);
+
+                long failedNow = failed.get();
+                interval = new OpenModelInterval(offsetNanos, offsetNanos - lastSampleNanos,
+                        profile.phaseAt(Math.max(0, offsetNanos - 1)), latency, serviceTime, failedNow - lastFailed,
+                        inFlight.get());
+                timeSeries.add(interval.toMap());
+
+                lastSampleNanos = offsetNanos;
+                lastFailed = failedNow;
+            } finally {
+                lock.unlock();
+            }
+            listener.accept(interval);
+        }
+    }
+}
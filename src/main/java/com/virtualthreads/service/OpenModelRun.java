@@ -0,0 +1,57 @@
+package com.virtualthreads.service;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of an open-model run. {@code latency} is measured from each request's intended
+ * start time (corrected for coordinated omission); {@code serviceTime} from when it was
+ * actually sent. Both histograms record nanoseconds.
+ */
+public record OpenModelRun(String testName, String targetUrl, LoadProfile profile, Histogram latency,
+                           Histogram serviceTime, long sent, long succeeded, long failed, long dropped,
+                           long durationNanos, List<Map<String, Object>> timeSeries) {
+
+    public double achievedThroughput() {
+        return durationNanos == 0 ? 0 : succeeded * 1_000_000_000.0 / durationNanos;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("testName", testName);
+        results.put("targetUrl", targetUrl);
+        results.put("targetRps", profile.targetRps());
+        results.put("rampUpSec", profile.rampUp().toSeconds());
+        results.put("steadyStateSec", profile.steadyState().toSeconds());
+        results.put("coolDownSec", profile.coolDown().toSeconds());
+        results.put("durationMs", durationNanos / 1_000_000);
+        results.put("sentRequests", sent);
+        results.put("successfulRequests", succeeded);
+        results.put("failedRequests", failed);
+        results.put("droppedRequests", dropped);
+        results.put("throughput", achievedThroughput());
+        results.put("latencyMs", percentiles(latency));
+        results.put("serviceTimeMs", percentiles(serviceTime));
+        results.put("timeSeries", timeSeries);
+        return results;
+    }
+
+    public static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", histogram.getTotalCount());
+        percentiles.put("mean", histogram.getMean() / 1_000_000.0);
+        percentiles.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+        percentiles.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p99.9", toMillis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", toMillis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.client.HttpClientType;
+import com.virtualthreads.client.MockApiClient;
+import com.virtualthreads.client.MockApiClients;
+import com.virtualthreads.concurrent.ManagedExecutors;
+import com.virtualthreads.model.AggregatedResult;
+import com.virtualthreads.model.MockApiResponse;
+import com.virtualthreads.monitoring.FanOutMetrics;
+import com.virtualthreads.monitoring.FanOutMetrics.Stage;
+import com.virtualthreads.resilience.CallPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The same fan-out written reactively: each call is a WebClient exchange merged with
+ * flatMap, so no thread waits for a response and the aggregation runs on the Netty event
+ * loops. The flatMap concurrency takes the place of the per-host semaphore.
+ */
+@Service
+public class ReactiveAggregationService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAggregationService.class);
+
+    private final WebClient webClient;
+    private final ExternalApiService externalApiService;
+    private final MockApiClient reactiveClient;
+    private final FanOutMetrics metrics;
+    private final int maxConcurrency;
+
+    public ReactiveAggregationService(WebClient webClient, ExternalApiService externalApiService,
+                                      MockApiClients clients, ManagedExecutors executors, FanOutMetrics metrics) {
+        this.webClient = webClient;
+        this.externalApiService = externalApiService;
+        this.reactiveClient = clients.get(HttpClientType.WEBCLIENT_REACTIVE);
+        this.metrics = metrics;
+        this.maxConcurrency = executors.hostConcurrencyLimiter().getMaxConcurrencyPerHost();
+    }
+
+    public Mono<Map<String, Object>> aggregate(int apiCount, int delayMs, boolean threadInfo, String scenario) {
+        FetchOptions options = new FetchOptions(HttpClientType.WEBCLIENT_REACTIVE, false, threadInfo, false,
+                scenario, CallPolicy.NONE);
+        return Mono.defer(() -> {
+            long startTime = System.nanoTime();
+            ResourceUsage usageBefore = ResourceUsage.snapshot();
+            logger.info("Starting reactive aggregation. API count: {}, delay: {}ms", apiCount, delayMs);
+
+            return Flux.range(0, apiCount)
+                    .flatMapSequential(i -> fetch("/mock-api/" + i, delayMs, options), maxConcurrency)
+                    .collectList()
+                    .map(results -> {
+                        long joinedAt = System.nanoTime();
+                        long totalTime = (joinedAt - startTime) / 1_000_000;
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("executionTimeMs", totalTime);
+                        response.put("apiCount", apiCount);
+                        response.put("results", results);
+                        response.put("threadType", "reactive");
+                        response.put("clientType", options.clientType().name());
+                        response.put("resourceUsage", ResourceUsage.snapshot().since(usageBefore).toMap(apiCount));
+                        metrics.recordSince(Stage.AGGREGATE, "reactive", joinedAt);
+                        logger.info("Completed reactive aggregation in {}ms", totalTime);
+                        return response;
+                    });
+        });
+    }
+
+    private Mono<AggregatedResult> fetch(String apiUrl, int delayMs, FetchOptions options) {
+        String fullUrl = externalApiService.buildUrl(apiUrl, delayMs, options);
+        return Mono.defer(() -> {
+                    long startTime = System.nanoTime();
+                    return webClient.get()
+                            .uri(fullUrl)
+                            .retrieve()
+                            .bodyToMono(MockApiResponse.class)
+                            .doOnNext(response -> metrics.recordSince(Stage.CLIENT, "reactive", startTime));
+                })
+                .map(response -> externalApiService.enhance(fullUrl, response, delayMs, options, reactiveClient))
+                .doOnError(e -> logger.error("Error making request to {}: {}", fullUrl, e.getMessage()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.virtualthreads.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+// Process-wide CPU time and allocated bytes, sampled before and after a run to estimate its cost
+public record ResourceUsage(long cpuTimeNanos, long allocatedBytes) {
+
+    private static final com.sun.management.OperatingSystemMXBean osBean =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private static final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static ResourceUsage snapshot() {
+        // Allocations made on virtual threads are accounted to their carrier threads
+        long allocated = threadBean.isThreadAllocatedMemoryEnabled() ? threadBean.getTotalThreadAllocatedBytes() : -1;
+        return new ResourceUsage(osBean.getProcessCpuTime(), allocated);
+    }
+
+    public ResourceUsage since(ResourceUsage start) {
+        return new ResourceUsage(cpuTimeNanos - start.cpuTimeNanos, allocatedBytes - start.allocatedBytes);
+    }
+
+    // Totals plus per-call averages; other work in the JVM is included, so run one test at a time
+    public Map<String, Object> toMap(int calls) {
+        int divisor = Math.max(1, calls);
+        return Map.of(
+                "processCpuTimeMs", cpuTimeNanos / 1_000_000.0,
+                "allocatedBytes", allocatedBytes,
+                "cpuTimePerCallMicros", cpuTimeNanos / 1_000.0 / divisor,
+                "allocatedBytesPerCall", allocatedBytes / divisor
+        );
+    }
+}
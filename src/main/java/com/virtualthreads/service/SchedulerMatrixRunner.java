@@ -0,0 +1,144 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.concurrent.PoolSizing;
+import com.virtualthreads.results.RunStore;
+import com.virtualthreads.results.SeriesResult;
+import com.virtualthreads.service.ForkedJvmBenchmark.Measurement;
+import com.virtualthreads.service.ForkedJvmBenchmark.Workload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Measures how the size of the virtual-thread carrier scheduler affects throughput and CPU use.
+ * For each setting a JVM is forked with {@code jdk.virtualThreadScheduler.parallelism} (and
+ * optionally {@code maxPoolSize}) set and measured under the same workload. Two platform-thread
+ * forks follow for comparison, one with the fixed fetch pool and one with the pool sized by
+ * Little's law for the best throughput the virtual forks reached.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SchedulerMatrixRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerMatrixRunner.class);
+
+    private final ForkedJvmBenchmark benchmark;
+    private final Optional<RunStore> runStore;
+    private final int fixedPlatformPoolSize;
+
+    public SchedulerMatrixRunner(ForkedJvmBenchmark benchmark, Optional<RunStore> runStore,
+                                 @Value("${app.executors.platform-pool-size:200}") int fixedPlatformPoolSize) {
+        this.benchmark = benchmark;
+        this.runStore = runStore;
+        this.fixedPlatformPoolSize = fixedPlatformPoolSize;
+    }
+
+    // platformTargetRps, when set, replaces the best virtual throughput as the Little's law target
+    public record Matrix(List<Integer> parallelism, Integer maxPoolSize, Double platformTargetRps,
+                         Workload workload) {
+
+        public Matrix {
+            if (parallelism == null || parallelism.isEmpty()) {
+                parallelism = defaultParallelism();
+            }
+            if (parallelism.stream().anyMatch(p -> p <= 0)) {
+                throw new IllegalArgumentException("parallelism values must be positive");
+            }
+        }
+
+        // Powers of two up to the CPU count, and the CPU count itself (the JDK's default)
+        static List<Integer> defaultParallelism() {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            List<Integer> values = new ArrayList<>();
+            for (int p = 1; p < cpus; p *= 2) {
+                values.add(p);
+            }
+            values.add(cpus);
+            return values;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("parallelism", parallelism);
+            map.put("maxPoolSize", maxPoolSize);
+            map.put("platformTargetRps", platformTargetRps);
+            map.putAll(workload.toMap());
+            return map;
+        }
+    }
+
+    public Map<String, Object> run(Matrix matrix, Consumer<Map<String, Object>> onStep) {
+        Workload workload = matrix.workload();
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Map<String, SeriesResult> series = new LinkedHashMap<>();
+        String bestVirtual = null;
+        double bestVirtualThroughput = 0;
+
+        for (int parallelism : matrix.parallelism()) {
+            List<String> jvmArgs = new ArrayList<>();
+            jvmArgs.add("-Djdk.virtualThreadScheduler.parallelism=" + parallelism);
+            if (matrix.maxPoolSize() != null) {
+                jvmArgs.add("-Djdk.virtualThreadScheduler.maxPoolSize=" + matrix.maxPoolSize());
+            }
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("parallelism", parallelism);
+            settings.put("maxPoolSize", matrix.maxPoolSize());
+
+            String name = "virtual-p" + parallelism;
+            Measurement measurement = benchmark.measure(name, "virtual", jvmArgs, List.of(), settings, workload);
+            steps.add(measurement.report());
+            series.put(name, measurement.series());
+            onStep.accept(measurement.report());
+            if (measurement.throughput() > bestVirtualThroughput) {
+                bestVirtualThroughput = measurement.throughput();
+                bestVirtual = name;
+            }
+        }
+
+        Measurement fixed = benchmark.measure("platform-fixed", "platform", List.of(),
+                List.of("--app.executors.platform-pool-size=" + fixedPlatformPoolSize),
+                Map.of("poolSize", fixedPlatformPoolSize), workload);
+        steps.add(fixed.report());
+        series.put("platform-fixed", fixed.series());
+        onStep.accept(fixed.report());
+
+        // Little's law: each request keeps apiCount calls blocked for delayMs, so sustaining the target
+        // request rate needs rate x apiCount x delay threads
+        double targetRps = matrix.platformTargetRps() != null ? matrix.platformTargetRps() : bestVirtualThroughput;
+        Integer littlesLawPoolSize = null;
+        if (targetRps > 0) {
+            double callsPerSecond = targetRps * workload.apiCount();
+            littlesLawPoolSize = PoolSizing.littlesLaw(callsPerSecond, Duration.ofMillis(workload.delayMs()));
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("targetRps", targetRps);
+            settings.put("poolSize", littlesLawPoolSize);
+            Measurement sized = benchmark.measure("platform-littles-law", "platform", List.of(),
+                    List.of("--app.executors.platform-target-throughput=" + callsPerSecond,
+                            "--app.executors.platform-call-latency-ms=" + workload.delayMs()),
+                    settings, workload);
+            steps.add(sized.report());
+            series.put("platform-littles-law", sized.series());
+            onStep.accept(sized.report());
+        } else {
+            logger.warn("No target throughput for Little's law sizing; skipping the sized platform run");
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matrix", matrix.toMap());
+        result.put("results", steps);
+        result.put("bestVirtualSetting", bestVirtual);
+        result.put("littlesLawPoolSize", littlesLawPoolSize);
+        runStore.map(store -> store.record("scheduler-matrix", matrix.toMap(), series))
+                .ifPresent(run -> result.put("runId", run.id()));
+        return result;
+    }
+}
\ No newline at end of file
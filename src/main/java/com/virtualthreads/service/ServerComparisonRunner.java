@@ -0,0 +1,96 @@
+package com.virtualthreads.service;
+
+import com.virtualthreads.results.RunStore;
+import com.virtualthreads.results.SeriesResult;
+import com.virtualthreads.service.ForkedJvmBenchmark.Measurement;
+import com.virtualthreads.service.ForkedJvmBenchmark.Workload;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Compares the server stacks under the same workload. Each server profile is started in a forked
+ * JVM and, unless one endpoint is forced for all, driven through the aggregation endpoint that
+ * matches its threading model, so every stack serves the request the way it would in production.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerComparisonRunner {
+
+    private final ForkedJvmBenchmark benchmark;
+    private final Optional<RunStore> runStore;
+
+    public ServerComparisonRunner(ForkedJvmBenchmark benchmark, Optional<RunStore> runStore) {
+        this.benchmark = benchmark;
+        this.runStore = runStore;
+    }
+
+    // Spring profiles selecting the server, and the endpoint (thread type) each is driven through
+    public enum ServerProfile {
+        // Tomcat handing each request to a new virtual thread, fanning out on virtual threads
+        TOMCAT_VIRTUAL("tomcat-virtual", "virtual"),
+        // Tomcat's platform thread pool, fanning out on the platform fetch pool
+        TOMCAT_PLATFORM("tomcat-platform", "platform"),
+        // Reactor Netty event loops with functional routes and a non-blocking WebClient fan-out
+        WEBFLUX("webflux", "reactive");
+
+        private final String profileName;
+        private final String threadType;
+
+        ServerProfile(String profileName, String threadType) {
+            this.profileName = profileName;
+            this.threadType = threadType;
+        }
+
+        public String profileName() {
+            return profileName;
+        }
+
+        public static ServerProfile of(String name) {
+            return Arrays.stream(values())
+                    .filter(profile -> profile.profileName.equalsIgnoreCase(name) || profile.name().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown server profile: " + name));
+        }
+    }
+
+    public Map<String, Object> run(List<ServerProfile> profiles, String threadType, Workload workload,
+                                   Consumer<Map<String, Object>> onStep) {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Map<String, SeriesResult> series = new LinkedHashMap<>();
+
+        for (ServerProfile profile : profiles) {
+            String endpoint = threadType != null ? threadType : profile.threadType;
+            Measurement measurement = benchmark.measure(profile.profileName, endpoint, List.of(),
+                    List.of("--spring.profiles.active=" + profile.profileName),
+                    Map.of("profile", profile.profileName, "endpoint", LoadTestService.aggregationPath(endpoint,
+                            workload.apiCount(), workload.delayMs(), false)),
+                    workload);
+            steps.add(measurement.report());
+            series.put(profile.profileName, measurement.series());
+            onStep.accept(measurement.report());
+        }
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("profiles", profiles.stream().map(ServerProfile::profileName).toList());
+        parameters.put("threadType", threadType);
+        parameters.putAll(workload.toMap());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("parameters", parameters);
+        result.put("results", steps);
+        steps.stream()
+                .max((a, b) -> Double.compare((double) a.get("throughput"), (double) b.get("throughput")))
+                .ifPresent(best -> result.put("highestThroughput", best.get("name")));
+        runStore.map(store -> store.record("server-comparison", parameters, series))
+                .ifPresent(run -> result.put("runId", run.id()));
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.virtualthreads.simulator;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Makes the mock API behave like a real downstream: latency drawn from a profile, injected
+ * errors and hangs, a per-endpoint token bucket, and a choice of how the latency is spent.
+ */
+public class DownstreamSimulator {
+
+    // Limits come from the query string, so the distinct buckets are bounded; the least recently used
+    // is dropped, and a limit that comes back starts with a full bucket
+    static final int MAX_BUCKETS = 1024;
+
+    private final Map<String, SimulationSettings> scenarios;
+    private final LongSupplier nanoClock;
+    // Keyed by endpoint and bucket parameters, so requests with different limits never share tokens.
+    // Guarded by a ReentrantLock rather than synchronized so virtual threads never pin on it
+    private final ReentrantLock bucketsLock = new ReentrantLock();
+    private final LinkedHashMap<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > MAX_BUCKETS;
+        }
+    };
+
+    public DownstreamSimulator(Map<String, SimulationSettings> scenarios) {
+        this(scenarios, System::nanoTime);
+    }
+
+    DownstreamSimulator(Map<String, SimulationSettings> scenarios, LongSupplier nanoClock) {
+        this.scenarios = scenarios;
+        this.nanoClock = nanoClock;
+    }
+
+    public Map<String, SimulationSettings> scenarios() {
+        return scenarios;
+    }
+
+    // Defaults, then the named scenario, then whatever the request set explicitly
+    public SimulationSettings resolve(String scenario, SimulationSettings overrides) {
+        SimulationSettings settings = SimulationSettings.DEFAULTS;
+        if (scenario != null && !scenario.isBlank()) {
+            SimulationSettings named = scenarios.get(scenario);
+            if (named == null) {
+                throw new UnknownScenarioException(scenario);
+            }
+            settings = settings.overriddenBy(named);
+        }
+        return settings.overriddenBy(overrides);
+    }
+
+    // Runs on the request thread and returns once the simulated work is done
+    public SimulationOutcome simulate(String endpoint, int delayMs, SimulationSettings settings) {
+        SimulationPlan plan = plan(endpoint, delayMs, settings);
+        perform(plan);
+        return plan.outcome();
+    }
+
+    // Samples the request's fate without spending any time on it
+    public SimulationPlan plan(String endpoint, int delayMs, SimulationSettings settings) {
+        if (settings.rateLimit() > 0 && !bucket(endpoint, settings).tryAcquire()) {
+            return new SimulationPlan(SimulationOutcome.RATE_LIMITED, 0, WorkMode.SLEEP);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < settings.timeoutRate()) {
+            // A hang is a stuck dependency, not work, so it always parks
+            return new SimulationPlan(SimulationOutcome.TIMEOUT,
+                    TimeUnit.MILLISECONDS.toNanos(settings.timeoutMs()), WorkMode.SLEEP);
+        }
+
+        long latencyNanos = (long) (sampleLatencyMs(delayMs, settings, random) * 1_000_000);
+        SimulationOutcome outcome = roll < settings.timeoutRate() + settings.errorRate()
+                ? SimulationOutcome.ERROR
+                : SimulationOutcome.OK;
+        return new SimulationPlan(outcome, latencyNanos, settings.work());
+    }
+
+    // Spends the planned latency on the calling thread
+    public static void perform(SimulationPlan plan) {
+        switch (plan.work()) {
+            case SLEEP -> park(plan.latencyNanos());
+            case SPIN -> spin(plan.latencyNanos());
+            case COMPUTE -> compute(plan.latencyNanos());
+        }
+    }
+
+    static double sampleLatencyMs(int delayMs, SimulationSettings settings, Random random) {
+        return switch (settings.latency()) {
+            case FIXED -> delayMs;
+            case NORMAL -> {
+                double stddev = settings.stddevMs() != null ? settings.stddevMs() : delayMs / 4.0;
+                yield Math.max(0, delayMs + stddev * random.nextGaussian());
+            }
+            case LOGNORMAL -> delayMs * Math.exp(settings.sigma() * random.nextGaussian());
+            case BIMODAL -> random.nextDouble() < settings.tailProbability()
+                    ? delayMs * settings.tailMultiplier()
+                    : delayMs;
+        };
+    }
+
+    private TokenBucket bucket(String endpoint, SimulationSettings settings) {
+        int burst = settings.burst() != null ? settings.burst() : (int) Math.ceil(settings.rateLimit());
+        String key = endpoint + ':' + settings.rateLimit() + ':' + burst;
+        bucketsLock.lock();
+        try {
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(settings.rateLimit(), burst, nanoClock));
+        } finally {
+            bucketsLock.unlock();
+        }
+    }
+
+    int bucketCount() {
+        bucketsLock.lock();
+        try {
+            return buckets.size();
+        } finally {
+            bucketsLock.unlock();
+        }
+    }
+
+    private static void park(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void compute(long nanos) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            digest.update(buffer.array());
+            buffer.putLong(0, buffer.getLong(0) ^ digest.digest()[0]);
+        }
+    }
+}
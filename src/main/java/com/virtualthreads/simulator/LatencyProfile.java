@@ -0,0 +1,13 @@
+package com.virtualthreads.simulator;
+
+// How the per-call latency is drawn around the requested delayMs
+public enum LatencyProfile {
+    // Exactly delayMs every time
+    FIXED,
+    // Gaussian with mean delayMs and standard deviation stddevMs, clipped at zero
+    NORMAL,
+    // Log-normal with median delayMs and shape sigma; right-skewed like most real services
+    LOGNORMAL,
+    // delayMs, except a tailProbability fraction of calls take tailMultiplier times longer
+    BIMODAL
+}
@@ -0,0 +1,23 @@
+package com.virtualthreads.simulator;
+
+import org.springframework.http.HttpStatus;
+
+public enum SimulationOutcome {
+    OK(HttpStatus.OK),
+    // Injected server error after the normal latency
+    ERROR(HttpStatus.INTERNAL_SERVER_ERROR),
+    // Injected hang of timeoutMs, then a gateway timeout if the client is still waiting
+    TIMEOUT(HttpStatus.GATEWAY_TIMEOUT),
+    // Rejected immediately by the endpoint's token bucket
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS);
+
+    private final HttpStatus status;
+
+    SimulationOutcome(HttpStatus status) {
+        this.status = status;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+}
@@ -0,0 +1,7 @@
+package com.virtualthreads.simulator;
+
+// What one request will go through, decided up front: how long it takes, how that time is spent,
+// and how it ends. A blocking server performs it on the request thread; a reactive one waits
+// out SLEEP latency on a timer instead.
+public record SimulationPlan(SimulationOutcome outcome, long latencyNanos, WorkMode work) {
+}
\ No newline at end of file
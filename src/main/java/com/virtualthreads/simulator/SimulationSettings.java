@@ -0,0 +1,46 @@
+package com.virtualthreads.simulator;
+
+/**
+ * Shape of the simulated downstream. Every field is optional so the same record serves as a
+ * named scenario from configuration and as per-request overrides bound from query parameters;
+ * {@link #overriddenBy} layers them, and {@link #DEFAULTS} fills whatever is still unset.
+ */
+public record SimulationSettings(
+        LatencyProfile latency,
+        // NORMAL: standard deviation; unset means a quarter of delayMs
+        Double stddevMs,
+        // LOGNORMAL: shape parameter of the underlying normal
+        Double sigma,
+        // BIMODAL: share of calls in the slow mode, and how much slower they are
+        Double tailProbability,
+        Double tailMultiplier,
+        WorkMode work,
+        // Probabilities in [0, 1] of an injected 500 or an injected hang
+        Double errorRate,
+        Double timeoutRate,
+        Long timeoutMs,
+        // Token bucket per endpoint in requests per second; 0 disables it. burst defaults to one second's worth
+        Double rateLimit,
+        Integer burst) {
+
+    public static final SimulationSettings DEFAULTS = new SimulationSettings(
+            LatencyProfile.FIXED, null, 0.5, 0.01, 10.0, WorkMode.SLEEP, 0.0, 0.0, 30_000L, 0.0, null);
+
+    public SimulationSettings overriddenBy(SimulationSettings o) {
+        if (o == null) {
+            return this;
+        }
+        return new SimulationSettings(
+                o.latency != null ? o.latency : latency,
+                o.stddevMs != null ? o.stddevMs : stddevMs,
+                o.sigma != null ? o.sigma : sigma,
+                o.tailProbability != null ? o.tailProbability : tailProbability,
+                o.tailMultiplier != null ? o.tailMultiplier : tailMultiplier,
+                o.work != null ? o.work : work,
+                o.errorRate != null ? o.errorRate : errorRate,
+                o.timeoutRate != null ? o.timeoutRate : timeoutRate,
+                o.timeoutMs != null ? o.timeoutMs : timeoutMs,
+                o.rateLimit != null ? o.rateLimit : rateLimit,
+                o.burst != null ? o.burst : burst);
+    }
+}
@@ -0,0 +1,40 @@
+package com.virtualthreads.simulator;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Classic token bucket: refills at ratePerSecond up to burst tokens, each request takes one
+class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
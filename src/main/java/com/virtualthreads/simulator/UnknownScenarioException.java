@@ -0,0 +1,12 @@
+package com.virtualthreads.simulator;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownScenarioException extends RuntimeException {
+
+    public UnknownScenarioException(String scenario) {
+        super("Unknown simulator scenario: " + scenario);
+    }
+}
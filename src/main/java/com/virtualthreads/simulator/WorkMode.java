@@ -0,0 +1,11 @@
+package com.virtualthreads.simulator;
+
+// What the request thread does while the sampled latency elapses
+public enum WorkMode {
+    // Parks the thread; a virtual thread gives its carrier back
+    SLEEP,
+    // Busy-waits without doing useful work, holding the thread (and a carrier) the whole time
+    SPIN,
+    // Hashes a buffer until the time is up, so the latency is real CPU load
+    COMPUTE
+}
@@ -0,0 +1,70 @@
+package com.virtualthreads.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicroBatcherTests {
+
+	private final Executor direct = Runnable::run;
+
+	@Test
+	void fullBatchIsDispatchedWithoutWaitingForTheWindow() {
+		List<List<String>> calls = new CopyOnWriteArrayList<>();
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(3, Duration.ofHours(1), direct, keys -> {
+			calls.add(keys);
+			return keys.stream().collect(Collectors.toMap(Function.identity(), k -> k.toUpperCase()));
+		});
+
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (String key : List.of("a", "b", "c")) {
+			futures.add(batcher.submit(key));
+		}
+
+		assertThat(futures).allMatch(CompletableFuture::isDone);
+		assertThat(futures.get(1).join()).isEqualTo("B");
+		assertThat(calls).containsExactly(List.of("a", "b", "c"));
+		assertThat(batcher.batches()).isEqualTo(1);
+	}
+
+	@Test
+	void partialBatchIsDispatchedWhenTheWindowCloses() {
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(100, Duration.ofMillis(10), direct,
+				keys -> keys.stream().collect(Collectors.toMap(Function.identity(), k -> k + "!")));
+
+		CompletableFuture<String> first = batcher.submit("a");
+		CompletableFuture<String> duplicate = batcher.submit("a");
+
+		assertThat(first.join()).isEqualTo("a!");
+		assertThat(duplicate.join()).isEqualTo("a!");
+		assertThat(batcher.requests()).isEqualTo(2);
+		assertThat(batcher.keys()).isEqualTo(1);
+	}
+
+	@Test
+	void missingKeysAndLoaderFailuresFailTheirCallers() {
+		MicroBatcher<String, String> partial = new MicroBatcher<>(2, Duration.ofHours(1), direct,
+				keys -> Map.of("a", "A"));
+		CompletableFuture<String> found = partial.submit("a");
+		CompletableFuture<String> missing = partial.submit("b");
+
+		assertThat(found.join()).isEqualTo("A");
+		assertThatThrownBy(missing::join).hasCauseInstanceOf(IllegalStateException.class);
+
+		MicroBatcher<String, String> failing = new MicroBatcher<>(1, Duration.ofHours(1), direct, keys -> {
+			throw new IllegalArgumentException("boom");
+		});
+		assertThatThrownBy(failing.submit("x")::join).hasCauseInstanceOf(IllegalArgumentException.class);
+	}
+}
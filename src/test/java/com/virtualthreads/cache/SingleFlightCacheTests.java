@@ -0,0 +1,76 @@
+package com.virtualthreads.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightCacheTests {
+
+	@Test
+	void concurrentCallersShareOneInFlightLoad() {
+		SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1));
+		CompletableFuture<String> load = new CompletableFuture<>();
+		AtomicInteger loads = new AtomicInteger();
+
+		CompletableFuture<String> first = cache.get("a", () -> {
+			loads.incrementAndGet();
+			return load;
+		});
+		CompletableFuture<String> second = cache.get("a", () -> {
+			loads.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		load.complete("value");
+
+		assertThat(first.join()).isEqualTo("value");
+		assertThat(second.join()).isEqualTo("value");
+		assertThat(loads).hasValue(1);
+		assertThat(cache.coalesced()).isEqualTo(1);
+		assertThat(cache.get("a", () -> CompletableFuture.completedFuture("other")).join()).isEqualTo("value");
+		assertThat(cache.hits()).isEqualTo(1);
+	}
+
+	@Test
+	void entriesExpireAfterTtl() {
+		AtomicLong now = new AtomicLong();
+		SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofSeconds(1), now::get);
+		cache.get("a", () -> CompletableFuture.completedFuture("v1")).join();
+
+		now.addAndGet(Duration.ofSeconds(2).toNanos());
+
+		assertThat(cache.get("a", () -> CompletableFuture.completedFuture("v2")).join()).isEqualTo("v2");
+		assertThat(cache.expirations()).isEqualTo(1);
+		assertThat(cache.misses()).isEqualTo(2);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		SingleFlightCache<String, String> cache = new SingleFlightCache<>(2, Duration.ofMinutes(1));
+		cache.get("a", () -> CompletableFuture.completedFuture("a")).join();
+		cache.get("b", () -> CompletableFuture.completedFuture("b")).join();
+		cache.get("a", () -> CompletableFuture.completedFuture("x")).join();
+		cache.get("c", () -> CompletableFuture.completedFuture("c")).join();
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.evictions()).isEqualTo(1);
+		assertThat(cache.get("a", () -> CompletableFuture.completedFuture("x")).join()).isEqualTo("a");
+		assertThat(cache.get("b", () -> CompletableFuture.completedFuture("reloaded")).join()).isEqualTo("reloaded");
+	}
+
+	@Test
+	void failedLoadsAreNotCached() {
+		SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1));
+		CompletableFuture<String> failed = cache.get("a",
+				() -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+		assertThat(failed).isCompletedExceptionally();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.get("a", () -> CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+	}
+
+}
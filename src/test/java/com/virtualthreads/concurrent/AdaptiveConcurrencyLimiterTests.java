@@ -0,0 +1,158 @@
+package com.virtualthreads.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private AdaptiveConcurrencyLimiter limiter(LimitAlgorithm algorithm, int initialLimit, int minLimit, int maxLimit,
+											   int maxQueue, Duration maxWait) {
+		return new AdaptiveConcurrencyLimiter("test", algorithm, initialLimit, minLimit, maxLimit, maxQueue, maxWait,
+				Duration.ofMillis(100), meterRegistry, clock::get);
+	}
+
+	// Fills the limit, then completes every call after the given round-trip time
+	private void round(AdaptiveConcurrencyLimiter limiter, long rttMs) throws InterruptedException {
+		List<AdaptiveConcurrencyLimiter.Token> tokens = new ArrayList<>();
+		for (int i = limiter.getLimit(); i > 0; i--) {
+			tokens.add(limiter.acquire());
+		}
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMs));
+		tokens.forEach(AdaptiveConcurrencyLimiter.Token::onSuccess);
+	}
+
+	private double rejected(String reason) {
+		return meterRegistry.counter("fanout.limiter.rejected", "limiter", "test", "reason", reason).count();
+	}
+
+	@Test
+	void aimdGrowsUnderLowLatencyUpToTheMaximum() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 4, 1, 10, 0, Duration.ZERO);
+
+		round(limiter, 5);
+		assertThat(limiter.getLimit()).isGreaterThan(4);
+
+		for (int i = 0; i < 20; i++) {
+			round(limiter, 5);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(10);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void gradientGrowsWhileLatencyIsFlatAndBacksOffWhenItInflates() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.GRADIENT, 20, 1, 1000, 0, Duration.ZERO);
+
+		for (int i = 0; i < 50; i++) {
+			AdaptiveConcurrencyLimiter.Token token = limiter.acquire();
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+			token.onSuccess();
+		}
+		int grown = limiter.getLimit();
+		assertThat(grown).isGreaterThan(20);
+
+		// Still under the slow-call threshold, but four times the baseline RTT
+		for (int i = 0; i < 50; i++) {
+			AdaptiveConcurrencyLimiter.Token token = limiter.acquire();
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+			token.onSuccess();
+		}
+		assertThat(limiter.getLimit()).isLessThan(grown);
+	}
+
+	@Test
+	void dropsAndSlowCallsBackOffButNeverBelowTheMinimum() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 10, 2, 10, 0, Duration.ZERO);
+
+		limiter.acquire().onDropped();
+		assertThat(limiter.getLimit()).isEqualTo(9);
+
+		AdaptiveConcurrencyLimiter.Token slow = limiter.acquire();
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+		slow.onSuccess();
+		assertThat(limiter.getLimit()).isLessThan(9);
+
+		for (int i = 0; i < 50; i++) {
+			limiter.acquire().onDropped();
+		}
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void ignoredCallsLeaveTheLimitAlone() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 5, 1, 10, 0, Duration.ZERO);
+
+		limiter.acquire().onIgnore();
+
+		assertThat(limiter.getLimit()).isEqualTo(5);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void initialLimitIsClampedToTheBounds() {
+		assertThat(limiter(LimitAlgorithm.AIMD, 50, 1, 10, 0, Duration.ZERO).getLimit()).isEqualTo(10);
+		assertThat(limiter(LimitAlgorithm.AIMD, 0, 3, 10, 0, Duration.ZERO).getLimit()).isEqualTo(3);
+		assertThatThrownBy(() -> limiter(LimitAlgorithm.AIMD, 5, 10, 5, 0, Duration.ZERO))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsAtOnceWhenTheQueueIsFull() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 1, 1, 1, 0, Duration.ofSeconds(10));
+		limiter.acquire();
+
+		long start = System.nanoTime();
+		assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(rejected("queue-full")).isEqualTo(1);
+		assertThat(limiter.getWaiting()).isZero();
+	}
+
+	@Test
+	void rejectsWhenTheWaitForASlotTimesOut() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 1, 1, 1, 1, Duration.ofMillis(20));
+		limiter.acquire();
+
+		assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+		assertThat(rejected("timeout")).isEqualTo(1);
+		assertThat(rejected("queue-full")).isZero();
+		assertThat(limiter.getWaiting()).isZero();
+	}
+
+	@Test
+	void queuedCallerGetsTheSlotOnRelease() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = limiter(LimitAlgorithm.AIMD, 1, 1, 1, 1, Duration.ofSeconds(10));
+		AdaptiveConcurrencyLimiter.Token first = limiter.acquire();
+
+		Thread waiter = Thread.ofVirtual().start(() -> {
+			try {
+				limiter.acquire().onSuccess();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		while (limiter.getWaiting() == 0) {
+			Thread.onSpinWait();
+		}
+		first.onSuccess();
+		waiter.join(TimeUnit.SECONDS.toMillis(5));
+
+		assertThat(waiter.isAlive()).isFalse();
+		assertThat(limiter.getInFlight()).isZero();
+		assertThat(rejected("timeout")).isZero();
+	}
+}
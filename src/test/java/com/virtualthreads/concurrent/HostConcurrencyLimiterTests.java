@@ -0,0 +1,69 @@
+package com.virtualthreads.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HostConcurrencyLimiterTests {
+
+	@Test
+	void blocksCallersBeyondThePerHostLimit() throws Exception {
+		HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2, new SimpleMeterRegistry());
+		HostConcurrencyLimiter.Permit first = limiter.acquire("localhost:8080");
+		HostConcurrencyLimiter.Permit second = limiter.acquire("localhost:8080");
+
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread waiter = Thread.ofVirtual().start(() -> {
+			try (HostConcurrencyLimiter.Permit permit = limiter.acquire("localhost:8080")) {
+				acquired.countDown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		assertThat(acquired.await(200, TimeUnit.MILLISECONDS)).isFalse();
+		assertThat(limiter.getInFlight("localhost:8080")).isEqualTo(2);
+
+		first.close();
+		assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+		waiter.join();
+		second.close();
+		assertThat(limiter.getInFlight("localhost:8080")).isZero();
+	}
+
+	@Test
+	void hostsAreLimitedIndependently() throws Exception {
+		HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1, new SimpleMeterRegistry());
+		try (HostConcurrencyLimiter.Permit a = limiter.acquire("a:80");
+			 HostConcurrencyLimiter.Permit b = limiter.acquire("b:80")) {
+			assertThat(limiter.getInFlight("a:80")).isEqualTo(1);
+			assertThat(limiter.getInFlight("b:80")).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void closingAPermitTwiceReleasesItOnce() throws Exception {
+		HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2, new SimpleMeterRegistry());
+		HostConcurrencyLimiter.Permit first = limiter.acquire("localhost:8080");
+		HostConcurrencyLimiter.Permit second = limiter.acquire("localhost:8080");
+
+		first.close();
+		first.close();
+
+		assertThat(limiter.getInFlight("localhost:8080")).isEqualTo(1);
+		second.close();
+		assertThat(limiter.getInFlight("localhost:8080")).isZero();
+	}
+
+	@Test
+	void rejectsNonPositiveLimit() {
+		assertThatThrownBy(() -> new HostConcurrencyLimiter(0, new SimpleMeterRegistry()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
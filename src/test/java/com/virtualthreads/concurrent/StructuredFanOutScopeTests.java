@@ -0,0 +1,115 @@
+package com.virtualthreads.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StructuredFanOutScopeTests {
+
+	// Parks until interrupted by the scope shutting down, and counts the interrupt
+	private static String hang(CountDownLatch started, CountDownLatch interrupted) {
+		started.countDown();
+		try {
+			Thread.sleep(Duration.ofSeconds(30));
+			return "too late";
+		} catch (InterruptedException e) {
+			interrupted.countDown();
+			throw new IllegalStateException("cancelled", e);
+		}
+	}
+
+	@Test
+	void deadlineCancelsSlowCallsAndKeepsPartialResults() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch interrupted = new CountDownLatch(2);
+		long start = System.nanoTime();
+		try (StructuredFanOutScope<String> scope = new StructuredFanOutScope<>("deadline", FanOutPolicy.FAIL_FAST,
+				4, 4)) {
+			scope.fork(() -> hang(started, interrupted));
+			scope.fork(() -> hang(started, interrupted));
+			started.await();
+			scope.fork(() -> "a");
+			scope.fork(() -> "b");
+
+			scope.joinUntilDeadline(Instant.now().plusMillis(200));
+
+			assertThat(scope.isTimedOut()).isTrue();
+			assertThat(scope.isSatisfied()).isFalse();
+			assertThat(scope.results()).containsExactlyInAnyOrder("a", "b");
+			assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void failFastShutsDownOnTheFirstFailure() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		try (StructuredFanOutScope<String> scope = new StructuredFanOutScope<>("fail-fast", FanOutPolicy.FAIL_FAST,
+				2, 2)) {
+			scope.fork(() -> hang(started, interrupted));
+			started.await();
+			scope.fork(() -> {
+				throw new IllegalStateException("HTTP 500");
+			});
+
+			scope.joinUntilDeadline(Instant.now().plusSeconds(10));
+
+			assertThat(scope.isTimedOut()).isFalse();
+			assertThat(scope.isSatisfied()).isFalse();
+			assertThat(scope.failures()).hasSize(1)
+					.first().extracting(Throwable::getMessage).isEqualTo("HTTP 500");
+			assertThat(scope.results()).isEmpty();
+			assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void firstKCompletesOnceEnoughCallsSucceeded() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		try (StructuredFanOutScope<String> scope = new StructuredFanOutScope<>("first-k", FanOutPolicy.FIRST_K,
+				2, 3)) {
+			scope.fork(() -> hang(started, interrupted));
+			started.await();
+			scope.fork(() -> "a");
+			scope.fork(() -> "b");
+
+			scope.joinUntilDeadline(Instant.now().plusSeconds(10));
+
+			assertThat(scope.isTimedOut()).isFalse();
+			assertThat(scope.isSatisfied()).isTrue();
+			assertThat(scope.results()).containsExactlyInAnyOrder("a", "b");
+			assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void firstKGivesUpOnceTheThresholdIsOutOfReach() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		try (StructuredFanOutScope<String> scope = new StructuredFanOutScope<>("first-k", FanOutPolicy.FIRST_K,
+				2, 3)) {
+			scope.fork(() -> hang(started, interrupted));
+			started.await();
+			scope.fork(() -> {
+				throw new IllegalStateException("HTTP 500");
+			});
+			scope.fork(() -> {
+				throw new IllegalStateException("HTTP 503");
+			});
+
+			scope.joinUntilDeadline(Instant.now().plusSeconds(10));
+
+			assertThat(scope.isTimedOut()).isFalse();
+			assertThat(scope.isSatisfied()).isFalse();
+			assertThat(scope.failureCount()).isEqualTo(2);
+			assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.virtualthreads.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestContextTests {
+
+	@Test
+	void readsTheContextFromRequestHeaders() {
+		RequestContext context = RequestContext.fromHeaders(Map.of(
+				RequestContext.CORRELATION_ID_HEADER, "abc-123",
+				RequestContext.TENANT_HEADER, "tenant-1",
+				RequestContext.TIMEOUT_HEADER, "5000")::get);
+
+		assertThat(context.correlationId()).isEqualTo("abc-123");
+		assertThat(context.tenant()).isEqualTo("tenant-1");
+		assertThat(context.hasDeadline()).isTrue();
+		assertThat(context.remainingMillis()).isBetween(4000L, 5000L);
+	}
+
+	@Test
+	void generatesACorrelationIdAndIgnoresAnInvalidTimeout() {
+		RequestContext context = RequestContext.fromHeaders(Map.of(RequestContext.TIMEOUT_HEADER, "soon")::get);
+
+		assertThat(context.correlationId()).isNotBlank();
+		assertThat(context.tenant()).isNull();
+		assertThat(context.hasDeadline()).isFalse();
+	}
+
+	@Test
+	void wrappedTasksSeeTheSubmittersContextOnAnotherThread() throws Exception {
+		RequestContext context = RequestContext.fromHeaders(Map.of(RequestContext.CORRELATION_ID_HEADER, "abc-123")::get);
+		FutureTask<Optional<RequestContext>> task = new FutureTask<>(RequestContext::current);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			context.call(() -> {
+				executor.execute(RequestContext.wrap(task));
+				return null;
+			});
+			assertThat(task.get(5, TimeUnit.SECONDS)).containsSame(context);
+		}
+		assertThat(RequestContext.current()).isEmpty();
+	}
+
+	@Test
+	void propagatesTheContextAsOutboundHeaders() throws Exception {
+		RequestContext context = RequestContext.fromHeaders(Map.of(
+				RequestContext.CORRELATION_ID_HEADER, "abc-123",
+				RequestContext.TIMEOUT_HEADER, "5000")::get);
+		Map<String, String> headers = new HashMap<>();
+
+		RequestContext.propagate(headers::put);
+		assertThat(headers).isEmpty();
+
+		context.call(() -> {
+			RequestContext.propagate(headers::put);
+			return null;
+		});
+		assertThat(headers).containsEntry(RequestContext.CORRELATION_ID_HEADER, "abc-123")
+				.doesNotContainKey(RequestContext.TENANT_HEADER);
+		assertThat(Long.parseLong(headers.get(RequestContext.TIMEOUT_HEADER))).isBetween(4000L, 5000L);
+	}
+}
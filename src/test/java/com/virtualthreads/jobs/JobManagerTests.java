@@ -0,0 +1,102 @@
+package com.virtualthreads.jobs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobManagerTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final JobManager manager = new JobManager(executor, 1, 10);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void lateSubscriberGetsStepsAndResult() throws Exception {
+		Job job = manager.submit("test", Map.of(), 2, running -> {
+			running.step(Map.of("n", 1));
+			running.step(Map.of("n", 2));
+			return Map.of("done", true);
+		});
+		awaitTerminal(job);
+
+		List<JobEvent> replayed = new ArrayList<>();
+		job.subscribe(replayed::add);
+
+		assertThat(job.status()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(replayed).extracting(JobEvent::name).containsExactly("step", "step", "completed");
+		assertThat(job.details()).containsEntry("result", Map.of("done", true)).containsEntry("completedSteps", 2);
+	}
+
+	@Test
+	void cancellingRunningJobInterruptsItAndKeepsCompletedSteps() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		Job job = manager.submit("test", Map.of(), 2, running -> {
+			running.step(Map.of("n", 1));
+			started.countDown();
+			Thread.sleep(60_000);
+			return Map.of();
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(manager.cancel(job.id())).isTrue();
+
+		assertThat(awaitTerminal(job).name()).isEqualTo("cancelled");
+		assertThat(job.status()).isEqualTo(JobStatus.CANCELLED);
+		assertThat(job.details()).containsEntry("completedSteps", 1).doesNotContainKey("error");
+		assertThat(manager.cancel(job.id())).isFalse();
+	}
+
+	@Test
+	void queuedJobCanBeCancelledBeforeItStarts() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Job first = manager.submit("test", Map.of(), null, running -> {
+			release.await();
+			return Map.of();
+		});
+		Job second = manager.submit("test", Map.of(), null, running -> Map.of());
+
+		manager.cancel(second.id());
+		assertThat(awaitTerminal(second).name()).isEqualTo("cancelled");
+		assertThat(second.summary()).doesNotContainKey("startedAt");
+
+		release.countDown();
+		assertThat(awaitTerminal(first).name()).isEqualTo("completed");
+		assertThat(manager.list()).extracting(Job::id).containsExactly(second.id(), first.id());
+	}
+
+	@Test
+	void failureIsReported() throws Exception {
+		Job job = manager.submit("test", Map.of(), null, running -> {
+			throw new IllegalStateException("boom");
+		});
+
+		assertThat(awaitTerminal(job).name()).isEqualTo("failed");
+		assertThat(job.summary()).containsEntry("error", "boom");
+	}
+
+	private static JobEvent awaitTerminal(Job job) throws InterruptedException {
+		BlockingQueue<JobEvent> events = new LinkedBlockingQueue<>();
+		job.subscribe(events::add);
+		JobEvent event;
+		do {
+			event = events.poll(5, TimeUnit.SECONDS);
+			assertThat(event).isNotNull();
+		} while (!event.isTerminal());
+		return event;
+	}
+}
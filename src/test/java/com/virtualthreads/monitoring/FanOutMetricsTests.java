@@ -0,0 +1,38 @@
+package com.virtualthreads.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutMetricsTests {
+
+	@Test
+	void recordsEachStageAndThreadTypeOnItsOwnTimer() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		FanOutMetrics metrics = new FanOutMetrics(registry);
+
+		metrics.record(FanOutMetrics.Stage.QUEUE, "virtual", 2_000_000);
+		metrics.record(FanOutMetrics.Stage.QUEUE, "virtual", 4_000_000);
+		metrics.record(FanOutMetrics.Stage.CLIENT, "platform", 100_000_000);
+
+		Timer queue = registry.get("fanout.stage").tag("stage", "queue").tag("thread.type", "virtual").timer();
+		assertThat(queue.count()).isEqualTo(2);
+		assertThat(queue.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6.0);
+		Timer client = registry.get("fanout.stage").tag("stage", "client").tag("thread.type", "platform").timer();
+		assertThat(client.count()).isEqualTo(1);
+		assertThat(registry.find("fanout.stage").tag("stage", "client").tag("thread.type", "virtual").timer())
+				.isNull();
+	}
+
+	@Test
+	void reusesTheRegisteredTimer() {
+		FanOutMetrics metrics = new FanOutMetrics(new SimpleMeterRegistry());
+
+		assertThat(metrics.timer(FanOutMetrics.Stage.SERVER, "reactive"))
+				.isSameAs(metrics.timer(FanOutMetrics.Stage.SERVER, "reactive"));
+	}
+}
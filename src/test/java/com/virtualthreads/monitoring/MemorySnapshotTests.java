@@ -0,0 +1,48 @@
+package com.virtualthreads.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemorySnapshotTests {
+
+	private static final String SUMMARY = """
+			
+			Native Memory Tracking:
+			
+			(Omitting categories weighting less than 1KB)
+			
+			Total: reserved=2932565KB, committed=119789KB
+			       malloc: 2061KB #4897
+			       mmap:   reserved=2930504KB, committed=117728KB
+			
+			-                 Java Heap (reserved=1538048KB, committed=96256KB)
+			                            (mmap: reserved=1538048KB, committed=96256KB)\s
+			 
+			-                    Thread (reserved=9250KB, committed=506KB)
+			                            (thread #10)
+			                            (stack: reserved=9216KB, committed=472KB)
+			 
+			-                      Code (reserved=247731KB, committed=7591KB)
+			                            (malloc=43KB #805)\s
+			""";
+
+	@Test
+	void parsesCommittedBytesPerCategory() {
+		Map<String, Long> committed = MemorySnapshot.parseNativeMemory(SUMMARY);
+
+		assertThat(committed)
+				.containsEntry("Total", 119789L * 1024)
+				.containsEntry("Java Heap", 96256L * 1024)
+				.containsEntry("Thread", 506L * 1024)
+				.containsEntry("Code", 7591L * 1024)
+				.hasSize(4);
+	}
+
+	@Test
+	void isEmptyWhenTrackingIsOff() {
+		assertThat(MemorySnapshot.parseNativeMemory("Native memory tracking is not enabled")).isEmpty();
+	}
+}
@@ -0,0 +1,84 @@
+package com.virtualthreads.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientCallerTests {
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ResilientCaller caller = new ResilientCaller(executor, new RetryBudget(1.0, 10), 95,
+			Duration.ofMillis(1), Duration.ofSeconds(5), 5, Duration.ofMillis(1), Duration.ofMillis(5), meterRegistry);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void slowAttemptIsHedgedOnceLatencyIsKnown() throws InterruptedException {
+		for (int i = 0; i < 5; i++) {
+			caller.call("k", CallPolicy.of(true, 0, 0), () -> {
+				Thread.sleep(5);
+				return "warm";
+			});
+		}
+		// Let the tracker publish its first percentile
+		Thread.sleep(20);
+
+		AtomicInteger attempts = new AtomicInteger();
+		long start = System.nanoTime();
+		String result = caller.call("k", CallPolicy.of(true, 0, 0), () -> {
+			if (attempts.incrementAndGet() == 1) {
+				Thread.sleep(10_000);
+			}
+			return "hedge";
+		});
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(meterRegistry.counter("fanout.resilience.hedges", "result", "won").count()).isEqualTo(1);
+	}
+
+	@Test
+	void requestSuppliedLatencyKeysDoNotGrowTrackersWithoutBound() {
+		for (int i = 0; i < ResilientCaller.MAX_TRACKERS + 500; i++) {
+			caller.call("delay=" + i, CallPolicy.of(false, 0, 0), () -> "ok");
+		}
+
+		assertThat(caller.trackerCount()).isEqualTo(ResilientCaller.MAX_TRACKERS);
+	}
+
+	@Test
+	void failuresAreRetriedWithinTheLimit() {
+		AtomicInteger attempts = new AtomicInteger();
+		String result = caller.call("r", CallPolicy.of(false, 2, 0), () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new IllegalStateException("HTTP 500");
+			}
+			return "ok";
+		});
+
+		assertThat(result).isEqualTo("ok");
+		assertThatThrownBy(() -> caller.call("r", CallPolicy.of(false, 1, 0), () -> {
+			throw new IllegalStateException("HTTP 500");
+		})).hasMessage("HTTP 500");
+	}
+
+	@Test
+	void attemptsAreCancelledWhenTheDeadlinePasses() {
+		assertThatThrownBy(() -> caller.call("d", CallPolicy.of(false, 3, 50), () -> {
+			Thread.sleep(10_000);
+			return "late";
+		})).isInstanceOf(CallTimeoutException.class);
+	}
+}
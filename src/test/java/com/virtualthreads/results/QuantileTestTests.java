@@ -0,0 +1,53 @@
+package com.virtualthreads.results;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileTestTests {
+
+	@Test
+	void normalTailProbabilitiesMatchTables() {
+		assertThat(QuantileTest.twoSidedPValue(1.96)).isCloseTo(0.05, within(1e-4));
+		assertThat(QuantileTest.twoSidedPValue(-2.576)).isCloseTo(0.01, within(1e-4));
+		assertThat(QuantileTest.twoSidedPValue(0)).isCloseTo(1, within(1e-6));
+	}
+
+	@Test
+	void detectsTailRegressionThatBarelyMovesTheMean() {
+		Histogram baseline = latencies(10_000, 10, 100, 30);
+		// Same body, but the slowest 2% instead of 1% take 30ms
+		Histogram candidate = latencies(10_000, 10, 200, 30);
+
+		QuantileTest test = QuantileTest.of(baseline, candidate, 99);
+
+		assertThat(candidate.getMean() / baseline.getMean()).isLessThan(1.03);
+		assertThat(test.isSignificant(0.05)).isTrue();
+		assertThat(test.candidateExceedance()).isGreaterThan(test.baselineExceedance());
+	}
+
+	@Test
+	void ignoresShiftConfinedToTheBody() {
+		Histogram baseline = latencies(10_000, 10, 150, 30);
+		Histogram candidate = latencies(10_000, 12, 150, 30);
+
+		QuantileTest test = QuantileTest.of(baseline, candidate, 99);
+
+		assertThat(test.isSignificant(0.05)).isFalse();
+	}
+
+	@Test
+	void untestedWithTooFewObservations() {
+		assertThat(QuantileTest.of(latencies(50, 10, 1, 30), latencies(10_000, 10, 100, 30), 99)).isNull();
+	}
+
+	// count requests taking bodyMs, except the slow ones taking slowMs
+	private static Histogram latencies(int count, long bodyMs, int slow, long slowMs) {
+		Histogram histogram = new Histogram(3);
+		histogram.recordValueWithCount(bodyMs * 1_000_000, count - slow);
+		histogram.recordValueWithCount(slowMs * 1_000_000, slow);
+		return histogram;
+	}
+}
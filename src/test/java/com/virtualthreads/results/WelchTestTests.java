@@ -0,0 +1,42 @@
+package com.virtualthreads.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WelchTestTests {
+
+	@Test
+	void studentTailProbabilitiesMatchTables() {
+		assertThat(WelchTest.twoSidedPValue(2.0, 10)).isCloseTo(0.07339, within(1e-5));
+		assertThat(WelchTest.twoSidedPValue(12.706, 1)).isCloseTo(0.05, within(1e-4));
+		assertThat(WelchTest.twoSidedPValue(1.96, 1e6)).isCloseTo(0.05, within(1e-4));
+	}
+
+	@Test
+	void welchTestOnUnequalVariances() {
+		SampleStats a = SampleStats.of(List.of(27.5, 21.0, 19.0, 23.6, 17.0, 17.9, 16.9, 20.1, 21.9, 22.6, 23.1,
+				19.6, 19.0, 21.7, 21.4));
+		SampleStats b = SampleStats.of(List.of(27.1, 22.0, 20.8, 23.4, 23.4, 23.5, 25.8, 22.0, 24.8, 20.2, 21.9,
+				22.1, 22.9, 20.5, 24.4));
+
+		WelchTest test = WelchTest.of(b, a);
+
+		assertThat(test.t()).isCloseTo(-2.4554, within(1e-3));
+		assertThat(test.degreesOfFreedom()).isCloseTo(24.99, within(1e-2));
+		assertThat(test.pValue()).isCloseTo(0.0214, within(1e-3));
+		assertThat(test.isSignificant(0.05)).isTrue();
+	}
+
+	@Test
+	void singleCandidateIsTestedAgainstBaselinePredictionInterval() {
+		SampleStats baseline = SampleStats.of(List.of(100.0, 102.0, 98.0, 101.0));
+
+		assertThat(WelchTest.of(baseline, SampleStats.of(List.of(80.0))).isSignificant(0.05)).isTrue();
+		assertThat(WelchTest.of(baseline, SampleStats.of(List.of(99.0))).isSignificant(0.05)).isFalse();
+		assertThat(WelchTest.of(SampleStats.of(List.of(100.0)), SampleStats.of(List.of(80.0)))).isNull();
+	}
+}
@@ -0,0 +1,75 @@
+package com.virtualthreads.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownstreamSimulatorTests {
+
+	private static SimulationSettings settings(LatencyProfile latency, Double errorRate, Double rateLimit,
+			Integer burst) {
+		return new SimulationSettings(latency, null, null, null, null, null, errorRate, null, null, rateLimit, burst);
+	}
+
+	@Test
+	void requestOverridesWinOverScenarioAndDefaults() {
+		DownstreamSimulator simulator = new DownstreamSimulator(
+				Map.of("flaky", settings(LatencyProfile.NORMAL, 0.5, null, null)));
+
+		SimulationSettings resolved = simulator.resolve("flaky", settings(null, 0.1, null, null));
+
+		assertThat(resolved.latency()).isEqualTo(LatencyProfile.NORMAL);
+		assertThat(resolved.errorRate()).isEqualTo(0.1);
+		assertThat(resolved.work()).isEqualTo(WorkMode.SLEEP);
+		assertThatThrownBy(() -> simulator.resolve("missing", null)).isInstanceOf(UnknownScenarioException.class);
+	}
+
+	@Test
+	void tokenBucketRejectsBeyondBurstUntilRefilled() {
+		AtomicLong now = new AtomicLong();
+		DownstreamSimulator simulator = new DownstreamSimulator(Map.of(), now::get);
+		SimulationSettings limited = simulator.resolve(null, settings(null, null, 10.0, 2));
+
+		assertThat(simulator.simulate("single", 0, limited)).isEqualTo(SimulationOutcome.OK);
+		assertThat(simulator.simulate("single", 0, limited)).isEqualTo(SimulationOutcome.OK);
+		assertThat(simulator.simulate("single", 0, limited)).isEqualTo(SimulationOutcome.RATE_LIMITED);
+		// Separate endpoints have separate buckets
+		assertThat(simulator.simulate("batch", 0, limited)).isEqualTo(SimulationOutcome.OK);
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(simulator.simulate("single", 0, limited)).isEqualTo(SimulationOutcome.OK);
+	}
+
+	@Test
+	void requestSuppliedRateLimitsDoNotGrowBucketsWithoutBound() {
+		DownstreamSimulator simulator = new DownstreamSimulator(Map.of(), () -> 0);
+		for (int i = 1; i <= DownstreamSimulator.MAX_BUCKETS + 500; i++) {
+			simulator.plan("single", 0, simulator.resolve(null, settings(null, null, (double) i, 1)));
+		}
+
+		assertThat(simulator.bucketCount()).isEqualTo(DownstreamSimulator.MAX_BUCKETS);
+	}
+
+	@Test
+	void bimodalProfileProducesTailOutliers() {
+		SimulationSettings bimodal = SimulationSettings.DEFAULTS.overriddenBy(settings(LatencyProfile.BIMODAL,
+				null, null, null));
+		Random random = new Random(42);
+		int slow = 0;
+		for (int i = 0; i < 10_000; i++) {
+			double latency = DownstreamSimulator.sampleLatencyMs(100, bimodal, random);
+			assertThat(latency).isIn(100.0, 1000.0);
+			if (latency > 100) {
+				slow++;
+			}
+		}
+		// tailProbability defaults to 1%
+		assertThat(slow).isBetween(50, 150);
+	}
+}